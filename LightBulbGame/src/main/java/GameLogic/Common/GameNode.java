@@ -5,7 +5,7 @@ import java.util.*;
 import ija.ija2024.tool.common.ToolField;
 
 public class GameNode implements ToolField {
-    private List<Observer> observers = new ArrayList<>();
+    private final ObserverRegistry observers = new ObserverRegistry();
     public GameNode()
     {
         conductorSides = new HashMap<Side,Boolean>();
@@ -87,6 +87,16 @@ public class GameNode implements ToolField {
     {
         return conductorSides.get(Side.EAST);
     }
+    // Connectors as a bit mask: north = 1, east = 2, south = 4, west = 8
+    public int connectorMask()
+    {
+        int mask = 0;
+        if (north()) mask |= 1;
+        if (east()) mask |= 2;
+        if (south()) mask |= 4;
+        if (west()) mask |= 8;
+        return mask;
+    }
     @Override
     public String toString()
     {
@@ -122,20 +132,29 @@ public class GameNode implements ToolField {
     }
     @Override
     public void addObserver(Observer observer) {
-        if (observer != null && !observers.contains(observer)) {
+        if (observer != null) {
             observers.add(observer);
         }
     }
 
+    // Registers an observer without keeping it alive, e.g. a view that may be discarded
+    // while the board lives on; the caller must hold the observer while it is needed
+    public void addWeakObserver(Observer observer) {
+        if (observer != null) {
+            observers.addWeak(observer);
+        }
+    }
+
     @Override
     public void removeObserver(Observer observer) {
-        observers.remove(observer);
+        if (observer != null) {
+            observers.remove(observer);
+        }
     }
 
+    // Safe while observers are added or removed, also from another thread
     @Override
     public void notifyObservers() {
-        for (Observer observer : observers) {
-            observer.update(this);
-        }
+        observers.notifyAll(this);
     }
 }
@@ -0,0 +1,116 @@
+package GameLogic.Common;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ija.ija2024.tool.common.Observable;
+
+// Copy-on-write list of observers, safe without locks.
+// Registration swaps in a new array with compare-and-set; notification iterates the array
+// that was current when it started, so observers may add or remove observers, also from
+// other threads, while being notified. Those changes take effect from the next notification.
+// Weakly registered observers do not keep their owner alive; once collected they are skipped
+// and dropped from the array by the next registration change.
+public class ObserverRegistry {
+    private static final Object[] EMPTY = new Object[0];
+
+    // Every element is an Observer or a WeakReference to one
+    private final AtomicReference<Object[]> entries = new AtomicReference<>(EMPTY);
+
+    // Adds an observer; returns false if it is already registered
+    public boolean add(Observable.Observer observer)
+    {
+        return register(observer, observer);
+    }
+
+    // Adds an observer held by a weak reference; the caller must keep it reachable
+    // for as long as it wants to be notified
+    public boolean addWeak(Observable.Observer observer)
+    {
+        return register(observer, new WeakReference<>(observer));
+    }
+
+    // Removes an observer; returns false if it was not registered
+    public boolean remove(Observable.Observer observer)
+    {
+        while (true)
+        {
+            Object[] current = entries.get();
+            int index = indexOf(current, observer);
+            if (index < 0)
+                return false;
+            Object[] next = new Object[current.length - 1];
+            int count = 0;
+            for (int i = 0; i < current.length; i++)
+            {
+                if (i != index && resolve(current[i]) != null)
+                    next[count++] = current[i];
+            }
+            if (entries.compareAndSet(current, trim(next, count)))
+                return true;
+        }
+    }
+
+    // Notifies every observer registered when the call started
+    public void notifyAll(Observable source)
+    {
+        for (Object entry : entries.get())
+        {
+            Observable.Observer observer = resolve(entry);
+            if (observer != null)
+                observer.update(source);
+        }
+    }
+
+    // Returns the number of registered observers, collected weak ones included until dropped
+    public int size()
+    {
+        return entries.get().length;
+    }
+
+    private boolean register(Observable.Observer observer, Object entry)
+    {
+        while (true)
+        {
+            Object[] current = entries.get();
+            if (indexOf(current, observer) >= 0)
+                return false;
+            Object[] next = new Object[current.length + 1];
+            int count = 0;
+            for (Object existing : current)
+            {
+                if (resolve(existing) != null)
+                    next[count++] = existing;
+            }
+            next[count++] = entry;
+            if (entries.compareAndSet(current, trim(next, count)))
+                return true;
+        }
+    }
+
+    private static int indexOf(Object[] array, Observable.Observer observer)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (observer.equals(resolve(array[i])))
+                return i;
+        }
+        return -1;
+    }
+
+    private static Object[] trim(Object[] array, int count)
+    {
+        if (count == array.length)
+            return array;
+        Object[] trimmed = new Object[count];
+        System.arraycopy(array, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    private static Observable.Observer resolve(Object entry)
+    {
+        if (entry instanceof WeakReference<?> reference)
+            return (Observable.Observer) reference.get();
+        return (Observable.Observer) entry;
+    }
+}
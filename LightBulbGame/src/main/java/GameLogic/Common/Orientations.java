@@ -0,0 +1,69 @@
+package GameLogic.Common;
+
+// Distinct orientations of every tile shape, precomputed for all 16 connector masks
+// (north = 1, east = 2, south = 4, west = 8, see GameNode.connectorMask).
+// A straight wire has 2, a cross and an empty cell 1, corners, T pieces and bulbs 4.
+// The k-th orientation is the tile turned clockwise k times, so the number of orientations
+// is also the period of the tile under turning. Lets solvers, shufflers and hints
+// enumerate the options of a tile without turning live nodes.
+public final class Orientations {
+    private static final int[][] DISTINCT = new int[16][];
+
+    static
+    {
+        for (int mask = 0; mask < 16; mask++)
+        {
+            int count = 1;
+            while (rotate(mask, count) != mask)
+            {
+                count++;
+            }
+            DISTINCT[mask] = new int[count];
+            for (int k = 0; k < count; k++)
+            {
+                DISTINCT[mask][k] = rotate(mask, k);
+            }
+        }
+    }
+
+    private Orientations() {
+    }
+
+    // Returns the mask turned clockwise the given number of times; bits above the connectors are ignored
+    public static int rotate(int mask, int turns)
+    {
+        mask &= 0xF;
+        turns &= 3;
+        return ((mask << turns) | (mask >>> (4 - turns))) & 0xF;
+    }
+
+    // Returns the number of distinct orientations of a tile
+    public static int count(int mask)
+    {
+        return DISTINCT[mask & 0xF].length;
+    }
+
+    public static int count(GameNode node)
+    {
+        return count(node.connectorMask());
+    }
+
+    // Returns the k-th distinct orientation of a tile, k from 0 to count(mask) - 1
+    public static int orientation(int mask, int k)
+    {
+        return DISTINCT[mask & 0xF][k];
+    }
+
+    // Returns the fewest clockwise turns taking a tile from one mask to another,
+    // or -1 if the target is not an orientation of the tile
+    public static int turnsBetween(int from, int to)
+    {
+        int[] options = DISTINCT[from & 0xF];
+        for (int k = 0; k < options.length; k++)
+        {
+            if (options[k] == (to & 0xF))
+                return k;
+        }
+        return -1;
+    }
+}
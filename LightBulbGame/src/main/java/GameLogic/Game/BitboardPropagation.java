@@ -0,0 +1,195 @@
+package GameLogic.Game;
+
+import java.util.Arrays;
+
+// Bit-parallel power propagation over a board of connector masks (north = 1, east = 2, south = 4, west = 8).
+// Cells are numbered row by row from 0 and stored one bit per cell in long[] bitboards.
+// The connector planes are kept per direction; the matched edges are derived from them with
+// shifts and masks, and the lit area grows along them 64 cells per word operation until a fixed point.
+// Every step also fills along rows inside each word and only visits the words around
+// the cells lit in the previous step.
+// An instance is reusable for any number of boards of its size, so solvers and generators
+// can evaluate candidate boards without GameNode objects and without allocation.
+public class BitboardPropagation {
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final int words;
+    private final long[] north;
+    private final long[] east;
+    private final long[] south;
+    private final long[] west;
+    // Cells that are not in the last column
+    private final long[] notLastCol;
+    // Cell i has a matched edge to cell i + 1, resp. to cell i + cols
+    private final long[] linkEast;
+    private final long[] linkSouth;
+    private final long[] lit;
+    // Cells lit in the last step and in the step being computed, swapped after every step
+    private long[] frontier;
+    private long[] next;
+
+    public BitboardPropagation(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        this.words = (cells + 63) >>> 6;
+        this.north = new long[words];
+        this.east = new long[words];
+        this.south = new long[words];
+        this.west = new long[words];
+        this.notLastCol = new long[words];
+        this.linkEast = new long[words];
+        this.linkSouth = new long[words];
+        this.lit = new long[words];
+        this.frontier = new long[words];
+        this.next = new long[words];
+        for (int i = 0; i < cells; i++)
+        {
+            if (i % cols != cols - 1)
+                notLastCol[i >>> 6] |= 1L << i;
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    // Sets the connector mask of a single cell
+    public void setCell(int index, int mask) {
+        long bit = 1L << index;
+        int word = index >>> 6;
+        north[word] = (mask & 1) != 0 ? north[word] | bit : north[word] & ~bit;
+        east[word] = (mask & 2) != 0 ? east[word] | bit : east[word] & ~bit;
+        south[word] = (mask & 4) != 0 ? south[word] | bit : south[word] & ~bit;
+        west[word] = (mask & 8) != 0 ? west[word] | bit : west[word] & ~bit;
+    }
+
+    // Sets the connector masks of all cells
+    public void setCells(byte[] masks) {
+        for (int i = 0; i < cells; i++)
+        {
+            setCell(i, masks[i]);
+        }
+    }
+
+    // Returns the cells reachable from the given source cells over matched edges, sources included.
+    // The returned bitboard is owned by this instance and valid until the next call.
+    public long[] propagate(long[] sources) {
+        // east[i] & west[i + 1] outside the last column, south[i] & north[i + cols]
+        for (int w = 0; w < words; w++)
+        {
+            linkEast[w] = east[w] & shiftedDown(west, 1, w) & notLastCol[w];
+            linkSouth[w] = south[w] & shiftedDown(north, cols, w);
+        }
+
+        System.arraycopy(sources, 0, lit, 0, words);
+        System.arraycopy(sources, 0, frontier, 0, words);
+        Arrays.fill(next, 0);
+        int lo = 0;
+        int hi = words;
+        // One step moves the frontier by at most one row, so only words near it need to be visited
+        int reach = (cols >>> 6) + 1;
+        while (lo < hi)
+        {
+            int from = Math.max(0, lo - reach);
+            int to = Math.min(words, hi + reach);
+            int newLo = words;
+            int newHi = 0;
+            for (int w = from; w < to; w++)
+            {
+                long reached = shiftedUp(frontier, linkEast, 1, w)
+                        | shiftedUp(frontier, linkSouth, cols, w)
+                        | shiftedDown(frontier, 1, w) & linkEast[w]
+                        | shiftedDown(frontier, cols, w) & linkSouth[w];
+                long added = reached & ~lit[w];
+                if (added != 0)
+                {
+                    added = fillAlongRows(added, linkEast[w]) & ~lit[w];
+                    lit[w] |= added;
+                    newLo = Math.min(newLo, w);
+                    newHi = w + 1;
+                }
+                next[w] = added;
+            }
+
+            // The old frontier lies within [from, to); clear it and make it the next buffer
+            Arrays.fill(frontier, from, to, 0);
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            lo = newLo;
+            hi = newHi;
+        }
+        Arrays.fill(frontier, 0);
+        return lit;
+    }
+
+    // Checks whether a cell is set in a bitboard
+    public static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    // Sets a cell in a bitboard
+    public static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    // Extends the cells of a word east and west along the matched edges within the word,
+    // in log2(64) steps (Kogge-Stone occluded fill)
+    private static long fillAlongRows(long cells, long linkEast) {
+        long east = cells;
+        long pass = linkEast << 1;
+        east |= pass & (east << 1);
+        pass &= pass << 1;
+        east |= pass & (east << 2);
+        pass &= pass << 2;
+        east |= pass & (east << 4);
+        pass &= pass << 4;
+        east |= pass & (east << 8);
+        pass &= pass << 8;
+        east |= pass & (east << 16);
+        pass &= pass << 16;
+        east |= pass & (east << 32);
+
+        long west = cells;
+        pass = linkEast;
+        west |= pass & (west >>> 1);
+        pass &= pass >>> 1;
+        west |= pass & (west >>> 2);
+        pass &= pass >>> 2;
+        west |= pass & (west >>> 4);
+        pass &= pass >>> 4;
+        west |= pass & (west >>> 8);
+        pass &= pass >>> 8;
+        west |= pass & (west >>> 16);
+        pass &= pass >>> 16;
+        west |= pass & (west >>> 32);
+
+        return east | west;
+    }
+
+    // Word w of (src & mask) moved by k cells towards higher indices
+    private long shiftedUp(long[] src, long[] mask, int k, int w) {
+        int from = w - (k >>> 6);
+        int bitShift = k & 63;
+        long value = from >= 0 && from < words ? (src[from] & mask[from]) << bitShift : 0;
+        if (bitShift != 0 && from - 1 >= 0 && from - 1 < words)
+            value |= (src[from - 1] & mask[from - 1]) >>> (64 - bitShift);
+        return value;
+    }
+
+    // Word w of src moved by k cells towards lower indices
+    private long shiftedDown(long[] src, int k, int w) {
+        int from = w + (k >>> 6);
+        int bitShift = k & 63;
+        long value = from < words ? src[from] >>> bitShift : 0;
+        if (bitShift != 0 && from + 1 < words)
+            value |= src[from + 1] << (64 - bitShift);
+        return value;
+    }
+}
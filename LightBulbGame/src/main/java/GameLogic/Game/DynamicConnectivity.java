@@ -0,0 +1,202 @@
+package GameLogic.Game;
+
+import java.util.Arrays;
+
+// Fully dynamic graph connectivity after Holm, de Lichtenberg and Thorup.
+// Every edge has a level; F_i is a spanning forest of the edges of level >= i, kept as Euler tour trees,
+// and a tree of F_i never has more than n / 2^i vertices. Deleting a tree edge searches for a replacement
+// from its level down, scanning only the smaller of the two halves and raising the level of every edge
+// it rejects, which pays for the scan. Insertion, deletion and queries take O(log^2 n) amortized time.
+// Edges are identified by ids chosen by the caller, from 0 to edgeCount - 1.
+// Forests of higher levels are only created once an edge reaches them.
+public class DynamicConnectivity {
+    private final int vertexCount;
+    private final EulerTourForest[] forests;
+    private final int[] edgeU;
+    private final int[] edgeV;
+    private final byte[] level;
+    private final boolean[] present;
+    private final boolean[] tree;
+    // Present edges incident to every vertex
+    private final int[][] incident;
+    private final int[] degree;
+
+    public DynamicConnectivity(int vertexCount, int edgeCount) {
+        this.vertexCount = vertexCount;
+        int levels = 1;
+        while ((1 << levels) <= vertexCount)
+            levels++;
+        this.forests = new EulerTourForest[levels + 1];
+        this.forests[0] = new EulerTourForest(vertexCount, edgeCount);
+        this.edgeU = new int[edgeCount];
+        this.edgeV = new int[edgeCount];
+        this.level = new byte[edgeCount];
+        this.present = new boolean[edgeCount];
+        this.tree = new boolean[edgeCount];
+        this.incident = new int[vertexCount][];
+        this.degree = new int[vertexCount];
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public boolean contains(int edge) {
+        return present[edge];
+    }
+
+    // Checks whether two vertices are connected
+    public boolean connected(int u, int v) {
+        return forests[0].connected(u, v);
+    }
+
+    // Returns the number of vertices connected to v, v included
+    public int componentSize(int v) {
+        return forests[0].treeSize(v);
+    }
+
+    // Adds an edge between two distinct vertices; does nothing if the edge is present
+    public void insert(int edge, int u, int v) {
+        if (present[edge])
+            return;
+        present[edge] = true;
+        edgeU[edge] = u;
+        edgeV[edge] = v;
+        level[edge] = 0;
+        addIncident(u, edge);
+        addIncident(v, edge);
+
+        if (!forests[0].connected(u, v))
+        {
+            tree[edge] = true;
+            forests[0].link(u, v, edge);
+            forests[0].setEdgeFlag(edge, true);
+        }
+        else
+        {
+            tree[edge] = false;
+            updateVertexFlag(u, 0);
+            updateVertexFlag(v, 0);
+        }
+    }
+
+    // Removes an edge; does nothing if the edge is not present
+    public void delete(int edge) {
+        if (!present[edge])
+            return;
+        present[edge] = false;
+        int u = edgeU[edge];
+        int v = edgeV[edge];
+        int edgeLevel = level[edge];
+        removeIncident(u, edge);
+        removeIncident(v, edge);
+
+        if (!tree[edge])
+        {
+            updateVertexFlag(u, edgeLevel);
+            updateVertexFlag(v, edgeLevel);
+            return;
+        }
+
+        tree[edge] = false;
+        for (int i = 0; i <= edgeLevel; i++)
+        {
+            forests[i].cut(edge);
+        }
+        for (int i = edgeLevel; i >= 0; i--)
+        {
+            if (replace(u, v, i))
+                return;
+        }
+    }
+
+    // Looks for an edge of level i reconnecting the trees of u and v in F_i
+    private boolean replace(int u, int v, int i) {
+        EulerTourForest forest = forests[i];
+        if (forest.treeSize(u) > forest.treeSize(v))
+        {
+            int swap = u;
+            u = v;
+            v = swap;
+        }
+
+        // The smaller tree fits into level i + 1, so its tree edges move up
+        for (int edge = forest.flaggedEdge(u); edge >= 0; edge = forest.flaggedEdge(u))
+        {
+            forest.setEdgeFlag(edge, false);
+            level[edge] = (byte) (i + 1);
+            EulerTourForest upper = forest(i + 1);
+            upper.link(edgeU[edge], edgeV[edge], edge);
+            upper.setEdgeFlag(edge, true);
+        }
+
+        for (int w = forest.flaggedVertex(u); w >= 0; w = forest.flaggedVertex(u))
+        {
+            for (int k = 0; k < degree[w]; k++)
+            {
+                int edge = incident[w][k];
+                if (tree[edge] || level[edge] != i)
+                    continue;
+                int other = edgeU[edge] == w ? edgeV[edge] : edgeU[edge];
+                if (forest.connected(other, v))
+                {
+                    tree[edge] = true;
+                    for (int j = 0; j <= i; j++)
+                    {
+                        forests[j].link(edgeU[edge], edgeV[edge], edge);
+                    }
+                    forest.setEdgeFlag(edge, true);
+                    // Edges of w raised earlier in this scan must be visible in F_{i+1}
+                    updateVertexFlag(w, i);
+                    updateVertexFlag(w, i + 1);
+                    updateVertexFlag(other, i);
+                    return true;
+                }
+                // Both ends are in the smaller tree
+                level[edge] = (byte) (i + 1);
+                updateVertexFlag(other, i);
+                updateVertexFlag(other, i + 1);
+            }
+            updateVertexFlag(w, i);
+            updateVertexFlag(w, i + 1);
+        }
+        return false;
+    }
+
+    // Flags the vertex in F_i if it has a non-tree edge of level i
+    private void updateVertexFlag(int v, int i) {
+        boolean has = false;
+        for (int k = 0; k < degree[v] && !has; k++)
+        {
+            int edge = incident[v][k];
+            has = !tree[edge] && level[edge] == i;
+        }
+        if (has || forests[i] != null)
+            forest(i).setVertexFlag(v, has);
+    }
+
+    private EulerTourForest forest(int i) {
+        if (forests[i] == null)
+            forests[i] = new EulerTourForest(vertexCount, edgeU.length);
+        return forests[i];
+    }
+
+    private void addIncident(int v, int edge) {
+        if (incident[v] == null)
+            incident[v] = new int[4];
+        else if (degree[v] == incident[v].length)
+            incident[v] = Arrays.copyOf(incident[v], degree[v] * 2);
+        incident[v][degree[v]++] = edge;
+    }
+
+    private void removeIncident(int v, int edge) {
+        for (int k = 0; k < degree[v]; k++)
+        {
+            if (incident[v][k] == edge)
+            {
+                incident[v][k] = incident[v][--degree[v]];
+                return;
+            }
+        }
+    }
+}
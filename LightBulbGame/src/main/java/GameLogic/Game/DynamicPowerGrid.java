@@ -0,0 +1,88 @@
+package GameLogic.Game;
+
+// Connection of every cell to power, maintained under rotations with DynamicConnectivity.
+// Cells are vertices 0 to cells - 1, joined by their matched edges; every power cell is joined
+// to one extra source vertex, so a cell is powered iff it is connected to the source.
+// A rotation changes at most four edges, so it costs O(log^2 n) amortized
+// instead of a flood fill of the whole component.
+public class DynamicPowerGrid {
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final int source;
+    private final byte[] masks;
+    private final DynamicConnectivity connectivity;
+
+    // Builds the structure for a board given by the connector masks of its cells
+    // (north = 1, east = 2, south = 4, west = 8), row by row from 0, and a bitboard of the power cells
+    public DynamicPowerGrid(int rows, int cols, byte[] masks, long[] powerCells) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        this.source = cells;
+        this.masks = masks.clone();
+        // Edge ids: 2i east of cell i, 2i + 1 south of cell i, 2 * cells + i from cell i to the source
+        this.connectivity = new DynamicConnectivity(cells + 1, cells * 3);
+        for (int i = 0; i < cells; i++)
+        {
+            updateEdge(i * 2);
+            updateEdge(i * 2 + 1);
+            if (BitboardPropagation.isSet(powerCells, i))
+                connectivity.insert(cells * 2 + i, i, source);
+        }
+    }
+
+    // Sets the connector mask of a cell, e.g. after a rotation
+    public void setCell(int index, int mask) {
+        if (masks[index] == mask)
+            return;
+        masks[index] = (byte) mask;
+        updateEdge(index * 2);
+        updateEdge(index * 2 + 1);
+        if (index % cols != 0)
+            updateEdge((index - 1) * 2);
+        if (index >= cols)
+            updateEdge((index - cols) * 2 + 1);
+    }
+
+    // Makes a cell a power cell or an ordinary one
+    public void setPower(int index, boolean power) {
+        if (power)
+            connectivity.insert(cells * 2 + index, index, source);
+        else
+            connectivity.delete(cells * 2 + index);
+    }
+
+    // Checks whether a cell is connected to any power cell
+    public boolean isPowered(int index) {
+        return connectivity.connected(index, source);
+    }
+
+    // Returns the number of cells connected to a cell, itself included
+    public int componentSize(int index) {
+        int size = connectivity.componentSize(index);
+        return isPowered(index) ? size - 1 : size;
+    }
+
+    // Inserts or deletes a grid edge according to the masks of its two cells
+    private void updateEdge(int edge) {
+        int from = edge >>> 1;
+        int to;
+        boolean matched;
+        if ((edge & 1) == 0)
+        {
+            to = from + 1;
+            matched = from % cols != cols - 1 && (masks[from] & 2) != 0 && (masks[to] & 8) != 0;
+        }
+        else
+        {
+            to = from + cols;
+            matched = from / cols != rows - 1 && (masks[from] & 4) != 0 && (masks[to] & 1) != 0;
+        }
+
+        if (matched)
+            connectivity.insert(edge, from, to);
+        else
+            connectivity.delete(edge);
+    }
+}
@@ -0,0 +1,286 @@
+package GameLogic.Game;
+
+import java.util.Arrays;
+
+// Forest of Euler tour trees, each tour kept in a treap with implicit keys and parent pointers.
+// A tour consists of one node per vertex and two arc nodes per tree edge; linking, cutting and
+// connectivity queries take O(log n) expected time. Nodes carry two flags aggregated over subtrees,
+// so a flagged node of a tree is found in O(log n): arc nodes are flagged for tree edges of the
+// forest's own level, vertex nodes for vertices with non-tree edges of that level (see DynamicConnectivity).
+// Nodes live in int arrays; vertex nodes are created on first use.
+class EulerTourForest {
+    static final int NONE = 0;
+    static final int TREE_EDGE = 1;
+    static final int NON_TREE_EDGE = 2;
+
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private int[] parent = new int[64];
+    private int[] priority = new int[64];
+    private int[] size = new int[64];
+    // Number of vertex nodes in the subtree
+    private int[] vertices = new int[64];
+    private byte[] flag = new byte[64];
+    private byte[] aggregate = new byte[64];
+    // Vertex of a vertex node (>= 0) or -1 - edge of an arc node
+    private int[] owner = new int[64];
+    private int nodeCount = 1;
+    private int freeList = NONE;
+    private int seed = 0x2545F491;
+
+    // Vertex node of every vertex, NONE if not created yet
+    private final int[] vertexNode;
+    // Both arc nodes of every tree edge of this forest
+    private final int[] arcNode;
+
+    EulerTourForest(int vertexCount, int edgeCount) {
+        this.vertexNode = new int[vertexCount];
+        this.arcNode = new int[edgeCount * 2];
+    }
+
+    // Checks whether two vertices are in the same tree
+    boolean connected(int u, int v) {
+        if (u == v)
+            return true;
+        if (vertexNode[u] == NONE || vertexNode[v] == NONE)
+            return false;
+        return root(vertexNode[u]) == root(vertexNode[v]);
+    }
+
+    // Returns the number of vertices of the tree containing v
+    int treeSize(int v) {
+        if (vertexNode[v] == NONE)
+            return 1;
+        return vertices[root(vertexNode[v])];
+    }
+
+    // Joins the trees of u and v by a tree edge
+    void link(int u, int v, int edge) {
+        int tourU = reroot(vertex(u));
+        int tourV = reroot(vertex(v));
+        int forward = newNode(-1 - edge, false);
+        int backward = newNode(-1 - edge, false);
+        arcNode[edge * 2] = forward;
+        arcNode[edge * 2 + 1] = backward;
+        merge(merge(merge(tourU, forward), tourV), backward);
+    }
+
+    // Removes a tree edge, splitting its tree in two
+    void cut(int edge) {
+        int first = arcNode[edge * 2];
+        int second = arcNode[edge * 2 + 1];
+        arcNode[edge * 2] = NONE;
+        arcNode[edge * 2 + 1] = NONE;
+
+        int tour = root(first);
+        int firstIndex = index(first);
+        int secondIndex = index(second);
+        if (firstIndex > secondIndex)
+        {
+            int swap = firstIndex;
+            firstIndex = secondIndex;
+            secondIndex = swap;
+        }
+
+        // A first-arc B second-arc C  ->  A C  and  B
+        long split = split(tour, firstIndex);
+        int before = (int) split;
+        split = split((int) (split >>> 32), 1);
+        split = split((int) (split >>> 32), secondIndex - firstIndex - 1);
+        int between = (int) split;
+        split = split((int) (split >>> 32), 1);
+        int after = (int) (split >>> 32);
+
+        if (between != NONE)
+            parent[between] = NONE;
+        merge(before, after);
+        free(first);
+        free(second);
+    }
+
+    // Marks or unmarks the arc nodes of a tree edge
+    void setEdgeFlag(int edge, boolean on) {
+        setFlag(arcNode[edge * 2], TREE_EDGE, on);
+    }
+
+    // Marks or unmarks the vertex node of a vertex
+    void setVertexFlag(int v, boolean on) {
+        if (vertexNode[v] == NONE && !on)
+            return;
+        setFlag(vertex(v), NON_TREE_EDGE, on);
+    }
+
+    // Returns an edge of the tree of v whose arc is flagged, or -1
+    int flaggedEdge(int v) {
+        int node = flagged(v, TREE_EDGE);
+        return node == NONE ? -1 : -1 - owner[node];
+    }
+
+    // Returns a vertex of the tree of v whose node is flagged, or -1
+    int flaggedVertex(int v) {
+        int node = flagged(v, NON_TREE_EDGE);
+        return node == NONE ? -1 : owner[node];
+    }
+
+    private int flagged(int v, int bit) {
+        if (vertexNode[v] == NONE)
+            return NONE;
+        int node = root(vertexNode[v]);
+        if ((aggregate[node] & bit) == 0)
+            return NONE;
+        while ((flag[node] & bit) == 0)
+        {
+            node = (aggregate[left[node]] & bit) != 0 ? left[node] : right[node];
+        }
+        return node;
+    }
+
+    private void setFlag(int node, int bit, boolean on) {
+        flag[node] = (byte) (on ? flag[node] | bit : flag[node] & ~bit);
+        for (int x = node; x != NONE; x = parent[x])
+        {
+            update(x);
+        }
+    }
+
+    private int vertex(int v) {
+        if (vertexNode[v] == NONE)
+            vertexNode[v] = newNode(v, true);
+        return vertexNode[v];
+    }
+
+    // Rotates the tour of the vertex node's tree to start at it, returns the new root
+    private int reroot(int node) {
+        int tour = root(node);
+        long split = split(tour, index(node));
+        return merge((int) (split >>> 32), (int) split);
+    }
+
+    private int root(int node) {
+        while (parent[node] != NONE)
+        {
+            node = parent[node];
+        }
+        return node;
+    }
+
+    // Position of a node in its tour
+    private int index(int node) {
+        int result = size[left[node]];
+        for (int x = node; parent[x] != NONE; x = parent[x])
+        {
+            if (right[parent[x]] == x)
+                result += size[left[parent[x]]] + 1;
+        }
+        return result;
+    }
+
+    // Splits a treap into its first count nodes (low 32 bits) and the rest (high 32 bits)
+    private long split(int node, int count) {
+        if (node == NONE)
+            return 0;
+        parent[node] = NONE;
+        if (size[left[node]] >= count)
+        {
+            long split = split(left[node], count);
+            int low = (int) split;
+            int high = (int) (split >>> 32);
+            left[node] = high;
+            if (high != NONE)
+                parent[high] = node;
+            update(node);
+            if (low != NONE)
+                parent[low] = NONE;
+            return (long) node << 32 | low & 0xFFFFFFFFL;
+        }
+        long split = split(right[node], count - size[left[node]] - 1);
+        int low = (int) split;
+        int high = (int) (split >>> 32);
+        right[node] = low;
+        if (low != NONE)
+            parent[low] = node;
+        update(node);
+        if (high != NONE)
+            parent[high] = NONE;
+        return (long) high << 32 | node & 0xFFFFFFFFL;
+    }
+
+    private int merge(int a, int b) {
+        if (a == NONE)
+            return b;
+        if (b == NONE)
+            return a;
+        if (priority[a] > priority[b])
+        {
+            int merged = merge(right[a], b);
+            right[a] = merged;
+            parent[merged] = a;
+            parent[a] = NONE;
+            update(a);
+            return a;
+        }
+        int merged = merge(a, left[b]);
+        left[b] = merged;
+        parent[merged] = b;
+        parent[b] = NONE;
+        update(b);
+        return b;
+    }
+
+    private void update(int node) {
+        int l = left[node];
+        int r = right[node];
+        size[node] = size[l] + size[r] + 1;
+        vertices[node] = vertices[l] + vertices[r] + (owner[node] >= 0 ? 1 : 0);
+        aggregate[node] = (byte) (flag[node] | aggregate[l] | aggregate[r]);
+    }
+
+    private int newNode(int nodeOwner, boolean isVertex) {
+        int node;
+        if (freeList != NONE)
+        {
+            node = freeList;
+            freeList = left[node];
+        }
+        else
+        {
+            if (nodeCount == left.length)
+                grow();
+            node = nodeCount++;
+        }
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        left[node] = NONE;
+        right[node] = NONE;
+        parent[node] = NONE;
+        priority[node] = seed;
+        size[node] = 1;
+        vertices[node] = isVertex ? 1 : 0;
+        flag[node] = 0;
+        aggregate[node] = 0;
+        owner[node] = nodeOwner;
+        return node;
+    }
+
+    private void free(int node) {
+        left[node] = freeList;
+        right[node] = NONE;
+        parent[node] = NONE;
+        flag[node] = 0;
+        freeList = node;
+    }
+
+    private void grow() {
+        int capacity = left.length * 2;
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        size = Arrays.copyOf(size, capacity);
+        vertices = Arrays.copyOf(vertices, capacity);
+        flag = Arrays.copyOf(flag, capacity);
+        aggregate = Arrays.copyOf(aggregate, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+    }
+}
@@ -8,21 +8,44 @@ import GameLogic.Common.GameNode;
 import GameLogic.Common.Position;
 import GameLogic.Common.Side;
 import GameLogic.Common.GameNodeType;
+import GameMetrics.EngineEvents;
+import GameMetrics.Histogram;
+import GameMetrics.Metrics;
 import ija.ija2024.tool.common.Observable;
 import ija.ija2024.tool.common.ToolEnvironment;
 import ija.ija2024.tool.common.ToolField;
 
 
 public class Game implements ToolEnvironment, ToolField.Observer{
+    private static final Histogram propagateTime = Metrics.histogram(Metrics.PROPAGATE);
     private final int rows;
     private final int cols;
     private final GameNode[][] grid;
     private boolean isUpdating = false;
+    // Connector mask of every cell as last passed to the propagation structures
+    private final byte[] hashedMasks;
+    // Connector mask and type of every cell as included in the Zobrist hash, see zobristKey
+    private final byte[] hashedCells;
+    private long zobristHash;
+    private PropagationEngine engine = PropagationEngine.PATH_FIND;
+    // Connector bitboards of the BITBOARD engine, created when the engine is selected
+    private BitboardPropagation bitboards;
+    // Connection to power maintained under rotations, created by enableDynamicConnectivity
+    private DynamicPowerGrid dynamicGrid;
+    // Nesting of updateGame; light notifications of the PATH_FIND engine update the game again
+    private int propagationDepth = 0;
     // Constructor
     public Game(int rows, int cols) {
         this.rows = rows;
         this.cols = cols;
         this.grid = new GameNode[rows][cols];
+        this.hashedMasks = new byte[rows * cols];
+        this.hashedCells = new byte[rows * cols];
+        this.zobristHash = zobristKey(-1, rows * 31 + cols);
+        for (int i = 0; i < hashedMasks.length; i++)
+        {
+            zobristHash ^= zobristKey(i, 0);
+        }
         for (int i = 0; i < rows; i++)
         {
             for (int j = 0; j < cols; j++)
@@ -36,11 +59,174 @@ public class Game implements ToolEnvironment, ToolField.Observer{
         this.visited = new ArrayList<Position>();
     }
 
+    // Returns the 64-bit Zobrist hash of the tiles of the whole board.
+    // Boards of the same size with the same node type and connectors in every cell have the same hash,
+    // also across Game instances. Maintained in O(1) per rotation.
+    public long zobristHash() {
+        return zobristHash;
+    }
+
+    // Returns the Zobrist key of a cell encoded as in PuzzlePack: the connector mask
+    // (see GameNode.connectorMask) in bits 0-3 and the node type ordinal in bits 4-5.
+    // Cells are indexed row by row from 0. Lets solvers hash candidate boards without rotating nodes.
+    public static long zobristKey(int cellIndex, int cell) {
+        // SplitMix64 finalizer, so no key table has to be stored for large boards
+        long z = ((long) cellIndex << 6 | cell) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Updates the hash of a single cell after its connectors or its type changed
+    private void rehashNode(GameNode node) {
+        int index = (node.position.row() - 1) * cols + node.position.col() - 1;
+        int mask = node.connectorMask();
+        int type = node.Type == null ? 0 : node.Type.ordinal();
+        int cell = mask | type << 4;
+        if (hashedCells[index] != cell)
+        {
+            zobristHash ^= zobristKey(index, hashedCells[index]) ^ zobristKey(index, cell);
+            hashedCells[index] = (byte) cell;
+        }
+        if (hashedMasks[index] != mask)
+        {
+            hashedMasks[index] = (byte) mask;
+            if (bitboards != null)
+                bitboards.setCell(index, mask);
+            if (dynamicGrid != null)
+                dynamicGrid.setCell(index, mask);
+        }
+    }
+
+    // Starts maintaining the connection of every cell to power in a dynamic connectivity structure,
+    // so that isPowered answers in polylogarithmic time after every rotation. Meant for large boards;
+    // the lights are still updated by the selected propagation engine.
+    public void enableDynamicConnectivity() {
+        if (dynamicGrid != null)
+            return;
+        long[] power = new long[(rows * cols + 63) >>> 6];
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                if (grid[i][j] != null && grid[i][j].isPower())
+                    BitboardPropagation.set(power, i * cols + j);
+            }
+        }
+        dynamicGrid = new DynamicPowerGrid(rows, cols, hashedMasks, power);
+    }
+
+    // Checks whether a node is connected to a power node, using the dynamic connectivity structure
+    // if it is enabled and the light of the node otherwise
+    public boolean isPowered(Position p) {
+        if (dynamicGrid != null)
+            return dynamicGrid.isPowered((p.row() - 1) * cols + p.col() - 1);
+        GameNode node = node(p);
+        return node != null && node.light();
+    }
+
+    // Selects the algorithm that finds the lit nodes and updates the lights with it.
+    // Both engines light the same nodes, those connected to any power node;
+    // BITBOARD only changes lights that differ.
+    public void setPropagationEngine(PropagationEngine engine) {
+        this.engine = engine;
+        if (engine == PropagationEngine.BITBOARD && bitboards == null)
+        {
+            bitboards = new BitboardPropagation(rows, cols);
+            bitboards.setCells(hashedMasks);
+        }
+        else if (engine == PropagationEngine.PATH_FIND)
+        {
+            bitboards = null;
+        }
+        updateGame();
+    }
+
+    public PropagationEngine propagationEngine() {
+        return engine;
+    }
+
+    // Propagates the power; only the outermost call is measured, nested calls are part of it
     public void updateGame() {
+        if (propagationDepth > 0)
+        {
+            propagate();
+            return;
+        }
+        EngineEvents.Propagate event = new EngineEvents.Propagate();
+        event.begin();
+        long start = System.nanoTime();
+        propagationDepth++;
+        try
+        {
+            propagate();
+        }
+        finally
+        {
+            propagationDepth--;
+        }
+        propagateTime.record(System.nanoTime() - start);
+        if (event.shouldCommit())
+        {
+            event.engine = engine.name();
+            event.cells = rows * cols;
+            event.commit();
+        }
+    }
+
+    private void propagate() {
+        if (engine == PropagationEngine.BITBOARD)
+        {
+            updateWithBitboards();
+            return;
+        }
         resetCircuit();
         init();
     }
 
+    // Floods the board from all power nodes on the bitboards and switches the lights that changed.
+    // Light notifications do not trigger another update.
+    private void updateWithBitboards() {
+        boolean nested = isUpdating;
+        isUpdating = true;
+        try
+        {
+            propagateWithBitboards();
+        }
+        finally
+        {
+            isUpdating = nested;
+        }
+    }
+
+    private void propagateWithBitboards() {
+        long[] sources = new long[(rows * cols + 63) >>> 6];
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                if (grid[i][j] != null && grid[i][j].isPower())
+                    BitboardPropagation.set(sources, i * cols + j);
+            }
+        }
+
+        long[] lit = bitboards.propagate(sources);
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                GameNode node = grid[i][j];
+                if (node == null || node.isPower())
+                    continue;
+                boolean on = BitboardPropagation.isSet(lit, i * cols + j);
+                if (on && !node.light())
+                    node.TurnLightOn();
+                else if (!on && node.light())
+                    node.TurnLightOff();
+            }
+        }
+    }
+
     private void resetCircuit() {
         visited.clear();
         for (int i = 0; i < rows; i++) {
@@ -55,6 +241,7 @@ public class Game implements ToolEnvironment, ToolField.Observer{
     public static Game create(int rows, int cols) {
         return new Game(rows, cols);
     }
+    // Lights the board from every power node, as the win check (PowerNetwork) counts all of them
     private void init()
     {
         GameNode powerSource;
@@ -68,7 +255,6 @@ public class Game implements ToolEnvironment, ToolField.Observer{
                 {
                     powerSource = grid[i][j];
                     pathFind(powerSource,Side.EAST);
-                    break;
                 }
             }
         }
@@ -152,6 +338,9 @@ public class Game implements ToolEnvironment, ToolField.Observer{
             grid[p.row() - 1][p.col() - 1] = node;
             node.position = p;
             node.addObserver(this);
+            rehashNode(node);
+            if (dynamicGrid != null)
+                dynamicGrid.setPower((p.row() - 1) * cols + p.col() - 1, false);
             return node;
         }
         return null;
@@ -163,6 +352,7 @@ public class Game implements ToolEnvironment, ToolField.Observer{
             if (node != null)
             {
                 node.Type = GameNodeType.BULB;
+                rehashNode(node);
                 return node;
             }
         }
@@ -175,6 +365,7 @@ public class Game implements ToolEnvironment, ToolField.Observer{
         if (node != null)
         {
             node.Type = GameNodeType.LINK;
+            rehashNode(node);
             return node;
         }
         return null;
@@ -187,6 +378,9 @@ public class Game implements ToolEnvironment, ToolField.Observer{
             if (node != null)
             {
                 node.Type = GameNodeType.POWER;
+                rehashNode(node);
+                if (dynamicGrid != null)
+                    dynamicGrid.setPower((p.row() - 1) * cols + p.col() - 1, true);
                 node.TurnLightOn();
                 return node;
             }
@@ -201,6 +395,9 @@ public class Game implements ToolEnvironment, ToolField.Observer{
 
     @Override
     public void update(Observable field) {
+        if (field instanceof GameNode node) {
+            rehashNode(node);
+        }
         if (isUpdating) return;
 
         try {
@@ -0,0 +1,208 @@
+package GameLogic.Game;
+
+import GameLogic.Common.GameNode;
+import GameLogic.Common.Position;
+
+import java.util.Arrays;
+
+// Connectivity analysis of a board, built with union-find over the matched edges in near-linear time.
+// Every cell gets the label of its connected component (0 to componentCount() - 1). For every component
+// it reports whether it contains a power node, how many of its connectors are open (point off the board
+// or to a neighbour without the matching connector) and whether it contains a cycle.
+// Any number of power nodes is supported. The analysis is a snapshot; it does not follow later rotations.
+public class PowerNetwork {
+    private final int rows;
+    private final int cols;
+    private final int[] component;
+    private final int[] openConnectors;
+    private final int componentCount;
+    private final int[] componentSize;
+    private final int[] componentEdges;
+    private final int[] componentOpen;
+    private final boolean[] componentPowered;
+
+    // Analyses a board given by the connector masks of its cells (north = 1, east = 2, south = 4, west = 8),
+    // row by row from 0, and a bitboard of the power cells (see BitboardPropagation)
+    public PowerNetwork(int rows, int cols, byte[] masks, long[] powerCells) {
+        this.rows = rows;
+        this.cols = cols;
+        int cells = rows * cols;
+        int[] parent = new int[cells];
+        int[] size = new int[cells];
+        for (int i = 0; i < cells; i++)
+        {
+            parent[i] = i;
+            size[i] = 1;
+        }
+
+        // Join matched edges east and south, everything else is an open connector
+        this.openConnectors = new int[cells];
+        boolean[] edgeEast = new boolean[cells];
+        boolean[] edgeSouth = new boolean[cells];
+        for (int i = 0; i < cells; i++)
+        {
+            int r = i / cols;
+            int c = i % cols;
+            int mask = masks[i];
+            if ((mask & 1) != 0 && (r == 0 || (masks[i - cols] & 4) == 0))
+                openConnectors[i] |= 1;
+            if ((mask & 2) != 0)
+            {
+                if (c + 1 < cols && (masks[i + 1] & 8) != 0)
+                {
+                    edgeEast[i] = true;
+                    union(parent, size, i, i + 1);
+                }
+                else
+                    openConnectors[i] |= 2;
+            }
+            if ((mask & 4) != 0)
+            {
+                if (r + 1 < rows && (masks[i + cols] & 1) != 0)
+                {
+                    edgeSouth[i] = true;
+                    union(parent, size, i, i + cols);
+                }
+                else
+                    openConnectors[i] |= 4;
+            }
+            if ((mask & 8) != 0 && (c == 0 || (masks[i - 1] & 2) == 0))
+                openConnectors[i] |= 8;
+        }
+
+        // Dense labels in the order of the first cell of every component
+        this.component = new int[cells];
+        int[] label = new int[cells];
+        Arrays.fill(label, -1);
+        int count = 0;
+        for (int i = 0; i < cells; i++)
+        {
+            int root = find(parent, i);
+            if (label[root] < 0)
+                label[root] = count++;
+            component[i] = label[root];
+        }
+        this.componentCount = count;
+
+        this.componentSize = new int[count];
+        this.componentEdges = new int[count];
+        this.componentOpen = new int[count];
+        this.componentPowered = new boolean[count];
+        for (int i = 0; i < cells; i++)
+        {
+            int k = component[i];
+            componentSize[k]++;
+            if (edgeEast[i])
+                componentEdges[k]++;
+            if (edgeSouth[i])
+                componentEdges[k]++;
+            componentOpen[k] += Integer.bitCount(openConnectors[i]);
+            if (BitboardPropagation.isSet(powerCells, i))
+                componentPowered[k] = true;
+        }
+    }
+
+    // Analyses the current state of a game
+    public static PowerNetwork of(Game game) {
+        int rows = game.rows();
+        int cols = game.cols();
+        byte[] masks = new byte[rows * cols];
+        long[] power = new long[(rows * cols + 63) >>> 6];
+        for (int r = 1; r <= rows; r++)
+        {
+            for (int c = 1; c <= cols; c++)
+            {
+                GameNode node = game.node(new Position(r, c));
+                if (node == null)
+                    continue;
+                int index = (r - 1) * cols + c - 1;
+                masks[index] = (byte) node.connectorMask();
+                if (node.isPower())
+                    BitboardPropagation.set(power, index);
+            }
+        }
+        return new PowerNetwork(rows, cols, masks, power);
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    // Returns the component label of a cell
+    public int componentOf(Position p) {
+        return component[index(p)];
+    }
+
+    // Checks whether a cell is connected to any power node
+    public boolean isPowered(Position p) {
+        return componentPowered[componentOf(p)];
+    }
+
+    // Returns the open connectors of a cell as a mask (north = 1, east = 2, south = 4, west = 8)
+    public int openConnectors(Position p) {
+        return openConnectors[index(p)];
+    }
+
+    public boolean isPowered(int component) {
+        return componentPowered[component];
+    }
+
+    public int size(int component) {
+        return componentSize[component];
+    }
+
+    // Returns the number of open connectors of all cells of a component
+    public int openConnectors(int component) {
+        return componentOpen[component];
+    }
+
+    // A connected component contains a cycle if it has at least as many edges as cells
+    public boolean hasCycle(int component) {
+        return componentEdges[component] >= componentSize[component];
+    }
+
+    // Checks whether every bulb of the game is in a powered component
+    public boolean allBulbsPowered(Game game) {
+        for (int r = 1; r <= rows; r++)
+        {
+            for (int c = 1; c <= cols; c++)
+            {
+                Position p = new Position(r, c);
+                GameNode node = game.node(p);
+                if (node != null && node.isBulb() && !isPowered(p))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(Position p) {
+        return (p.row() - 1) * cols + p.col() - 1;
+    }
+
+    // Root of a cell with path halving
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i)
+        {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // Joins two sets, the smaller one under the larger one
+    private static void union(int[] parent, int[] size, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA == rootB)
+            return;
+        if (size[rootA] < size[rootB])
+        {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+    }
+}
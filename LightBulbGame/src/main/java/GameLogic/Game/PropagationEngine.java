@@ -0,0 +1,9 @@
+package GameLogic.Game;
+
+// Algorithm used by Game.updateGame to find the lit nodes
+public enum PropagationEngine {
+    // Depth-first search through the GameNode objects
+    PATH_FIND,
+    // Bit-parallel flood fill over connector bitboards, see BitboardPropagation
+    BITBOARD
+}
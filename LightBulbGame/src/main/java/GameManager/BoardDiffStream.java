@@ -0,0 +1,230 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Produces a stream of compact board frames for remote views.
+ *              Observes every node of a game and remembers which cells changed;
+ *              each frame then carries only the cells that differ from the previously
+ *              emitted state, grouped into runs of adjacent cells. A full keyframe is emitted
+ *              periodically so that late joiners and lossy clients can resynchronize.
+ *
+ *              Cell byte: the cell of PuzzlePack (connector mask in bits 0–3, node type ordinal
+ *              in bits 4–5) with PuzzlePack.LIGHT_BIT (bit 6) set on lit cells.
+ *
+ *              The stream keeps the state last sent to one receiver, so every subscriber
+ *              needs a stream of its own.
+ *
+ *              Frame:     [u8 type][varint frame number][body]
+ *              Keyframe:  [varint rows][varint cols] then (varint run length, u8 cell) runs of equal cells
+ *              Delta:     [varint run count] then (varint gap, varint run length, u8 cell × run length) runs,
+ *                         the gap is the number of unchanged cells since the end of the previous run.
+ */
+
+package GameManager;
+
+import GameLogic.Common.GameNode;
+import GameLogic.Common.Position;
+import GameLogic.Game.Game;
+import ija.ija2024.tool.common.Observable;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+public class BoardDiffStream implements Observable.Observer {
+    public static final byte KEYFRAME = 1;
+    public static final byte DELTA = 2;
+
+    private final Game game;
+    private final int cols;
+    private final int keyframeInterval;
+    private final byte[] sent;
+    private final boolean[] dirty;
+    private int[] dirtyCells;
+    private int dirtyCount = 0;
+    private long frameNumber = 0;
+    private int framesSinceKeyframe = 0;
+
+    /**
+     * Starts observing the given game.
+     *
+     * @param game the game to stream
+     * @param keyframeInterval every how many frames a keyframe is emitted (at least 1)
+     */
+    public BoardDiffStream(Game game, int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be positive: " + keyframeInterval);
+        }
+        this.game = game;
+        this.cols = game.cols();
+        this.keyframeInterval = keyframeInterval;
+        this.sent = new byte[game.rows() * cols];
+        this.dirty = new boolean[sent.length];
+        this.dirtyCells = new int[16];
+
+        for (int r = 1; r <= game.rows(); r++) {
+            for (int c = 1; c <= cols; c++) {
+                game.node(new Position(r, c)).addObserver(this);
+            }
+        }
+    }
+
+    /**
+     * Stops observing the game.
+     */
+    public void detach() {
+        for (int r = 1; r <= game.rows(); r++) {
+            for (int c = 1; c <= cols; c++) {
+                game.node(new Position(r, c)).removeObserver(this);
+            }
+        }
+    }
+
+    /**
+     * Encodes a node into a single cell byte, the pack cell with the light bit.
+     *
+     * @param node the node to encode
+     * @return the encoded cell
+     */
+    public static byte encodeCell(GameNode node) {
+        int cell = PuzzlePack.encodeCell(node);
+        if (node.light()) cell |= PuzzlePack.LIGHT_BIT;
+        return (byte) cell;
+    }
+
+    /**
+     * Marks the changed node's cell as dirty.
+     *
+     * @param observable the node that changed
+     */
+    @Override
+    public void update(Observable observable) {
+        Position pos = ((GameNode) observable).getPosition();
+        int index = (pos.row() - 1) * cols + pos.col() - 1;
+        if (dirty[index]) return;
+
+        dirty[index] = true;
+        if (dirtyCount == dirtyCells.length) {
+            dirtyCells = Arrays.copyOf(dirtyCells, dirtyCount * 2);
+        }
+        dirtyCells[dirtyCount++] = index;
+    }
+
+    /**
+     * Returns the next frame. Every keyframe interval frames (including the first one)
+     * this is a keyframe, otherwise a delta with the cells changed since the previous frame.
+     *
+     * @return the encoded frame
+     */
+    public byte[] nextFrame() {
+        if (framesSinceKeyframe == 0 || framesSinceKeyframe >= keyframeInterval) {
+            return keyframe();
+        }
+        return delta();
+    }
+
+    /**
+     * Returns a keyframe with the whole board and restarts the keyframe interval.
+     *
+     * @return the encoded keyframe
+     */
+    public byte[] keyframe() {
+        clearDirty();
+        for (int r = 1; r <= game.rows(); r++) {
+            for (int c = 1; c <= cols; c++) {
+                sent[(r - 1) * cols + c - 1] = encodeCell(game.node(new Position(r, c)));
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + sent.length / 4);
+        out.write(KEYFRAME);
+        writeVarint(out, frameNumber);
+        writeVarint(out, game.rows());
+        writeVarint(out, cols);
+
+        int i = 0;
+        while (i < sent.length) {
+            int end = i + 1;
+            while (end < sent.length && sent[end] == sent[i]) end++;
+            writeVarint(out, end - i);
+            out.write(sent[i]);
+            i = end;
+        }
+
+        frameNumber++;
+        framesSinceKeyframe = 1;
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns a delta frame with the cells that changed since the previous frame.
+     *
+     * @return the encoded delta
+     */
+    private byte[] delta() {
+        Arrays.sort(dirtyCells, 0, dirtyCount);
+
+        // Drop cells that were notified but ended up in the state already sent.
+        int changed = 0;
+        for (int i = 0; i < dirtyCount; i++) {
+            int index = dirtyCells[i];
+            dirty[index] = false;
+            byte cell = encodeCell(game.node(new Position(index / cols + 1, index % cols + 1)));
+            if (cell != sent[index]) {
+                sent[index] = cell;
+                dirtyCells[changed++] = index;
+            }
+        }
+
+        int runs = 0;
+        for (int i = 0; i < changed; i++) {
+            if (i == 0 || dirtyCells[i] != dirtyCells[i - 1] + 1) runs++;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + changed * 3);
+        out.write(DELTA);
+        writeVarint(out, frameNumber);
+        writeVarint(out, runs);
+
+        int previousEnd = 0;
+        int i = 0;
+        while (i < changed) {
+            int end = i + 1;
+            while (end < changed && dirtyCells[end] == dirtyCells[end - 1] + 1) end++;
+            writeVarint(out, dirtyCells[i] - previousEnd);
+            writeVarint(out, end - i);
+            for (int j = i; j < end; j++) {
+                out.write(sent[dirtyCells[j]]);
+            }
+            previousEnd = dirtyCells[end - 1] + 1;
+            i = end;
+        }
+
+        dirtyCount = 0;
+        frameNumber++;
+        framesSinceKeyframe++;
+        return out.toByteArray();
+    }
+
+    /**
+     * Forgets all dirty cells.
+     */
+    private void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty[dirtyCells[i]] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, 7 bits per byte.
+     *
+     * @param out the output buffer
+     * @param value the non-negative value
+     */
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
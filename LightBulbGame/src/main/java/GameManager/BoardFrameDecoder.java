@@ -0,0 +1,133 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Client side of the board frame stream.
+ *              Applies keyframes and deltas produced by BoardDiffStream to a local copy of the board.
+ */
+
+package GameManager;
+
+import java.util.Arrays;
+
+public class BoardFrameDecoder {
+    private int rows = 0;
+    private int cols = 0;
+    private byte[] cells = new byte[0];
+    private long frameNumber = -1;
+    private int[] changed = new int[0];
+    private int changedCount = 0;
+    private int position;
+
+    /**
+     * Applies a frame to the local board.
+     *
+     * @param frame the encoded frame
+     * @return true if the frame was applied; false if it is a delta received before any keyframe
+     *         or does not directly follow the last applied frame, in which case a keyframe is needed
+     * @throws IllegalArgumentException if the frame type is unknown
+     */
+    public boolean apply(byte[] frame) {
+        position = 0;
+        changedCount = 0;
+        byte type = frame[position++];
+        long number = readVarint(frame);
+
+        if (type == BoardDiffStream.KEYFRAME) {
+            rows = (int) readVarint(frame);
+            cols = (int) readVarint(frame);
+            if (cells.length != rows * cols) {
+                cells = new byte[rows * cols];
+                changed = new int[rows * cols];
+            }
+            int index = 0;
+            while (index < cells.length) {
+                int run = (int) readVarint(frame);
+                byte cell = frame[position++];
+                for (int i = 0; i < run; i++, index++) {
+                    if (cells[index] != cell) {
+                        cells[index] = cell;
+                        changed[changedCount++] = index;
+                    }
+                }
+            }
+        }
+        else if (type == BoardDiffStream.DELTA) {
+            if (frameNumber < 0 || number != frameNumber + 1) {
+                return false;
+            }
+            long runs = readVarint(frame);
+            int index = 0;
+            for (long r = 0; r < runs; r++) {
+                index += (int) readVarint(frame);
+                int run = (int) readVarint(frame);
+                for (int i = 0; i < run; i++, index++) {
+                    cells[index] = frame[position++];
+                    changed[changedCount++] = index;
+                }
+            }
+        }
+        else {
+            throw new IllegalArgumentException("Unknown frame type: " + type);
+        }
+
+        frameNumber = number;
+        return true;
+    }
+
+    /**
+     * Returns the number of rows of the board, 0 before the first keyframe.
+     *
+     * @return the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the board, 0 before the first keyframe.
+     *
+     * @return the number of columns
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * Returns the encoded cell at the given 1-based position.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @return the cell byte
+     */
+    public byte cell(int row, int col) {
+        return cells[(row - 1) * cols + col - 1];
+    }
+
+    /**
+     * Returns the indices (row by row, 0-based) of the cells changed by the last applied frame.
+     *
+     * @return the changed cell indices
+     */
+    public int[] changedCells() {
+        return Arrays.copyOf(changed, changedCount);
+    }
+
+    /**
+     * Reads an unsigned variable-length integer at the current position.
+     *
+     * @param frame the encoded frame
+     * @return the decoded value
+     */
+    private long readVarint(byte[] frame) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = frame[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Immutable snapshot of the connector layout of a board.
+ *              Cells are stored in a persistent 32-way trie, so changing one cell creates
+ *              a new snapshot sharing everything except the path to that cell (O(log n) memory).
+ *              Snapshots can be read from any thread without locking.
+ *
+ *              Cell byte: connector mask in bits 0–3 (north, east, south, west),
+ *              node type ordinal in bits 4–5, as in PuzzlePack.
+ */
+
+package GameManager;
+
+import GameLogic.Common.Position;
+import GameLogic.Game.Game;
+
+import java.util.function.IntConsumer;
+
+public final class BoardSnapshot {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private final int rows;
+    private final int cols;
+    private final int shift;
+    private final Object root;
+
+    /**
+     * Creates a snapshot over an existing trie.
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @param shift the bit shift of the root level, 0 if the root is a leaf
+     * @param root the root node, either byte[] leaf or Object[] inner node
+     */
+    private BoardSnapshot(int rows, int cols, int shift, Object root) {
+        this.rows = rows;
+        this.cols = cols;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * Captures the current layout of a game.
+     *
+     * @param game the game to capture
+     * @return the snapshot of the game
+     */
+    public static BoardSnapshot of(Game game) {
+        int rows = game.rows();
+        int cols = game.cols();
+        int size = rows * cols;
+
+        Object[] level = new Object[Math.max(1, (size + MASK) / WIDTH)];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = new byte[WIDTH];
+        }
+        for (int r = 1; r <= rows; r++) {
+            for (int c = 1; c <= cols; c++) {
+                int index = (r - 1) * cols + c - 1;
+                ((byte[]) level[index >>> BITS])[index & MASK] = PuzzlePack.encodeCell(game.node(new Position(r, c)));
+            }
+        }
+
+        int shift = 0;
+        while (level.length > 1) {
+            Object[] parents = new Object[(level.length + MASK) / WIDTH];
+            for (int i = 0; i < parents.length; i++) {
+                Object[] children = new Object[WIDTH];
+                System.arraycopy(level, i * WIDTH, children, 0, Math.min(WIDTH, level.length - i * WIDTH));
+                parents[i] = children;
+            }
+            level = parents;
+            shift += BITS;
+        }
+
+        return new BoardSnapshot(rows, cols, shift, level[0]);
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * Returns the encoded cell at the given row-major index.
+     *
+     * @param index the 0-based cell index
+     * @return the cell byte
+     */
+    public byte cell(int index) {
+        Object node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = ((Object[]) node)[(index >>> level) & MASK];
+        }
+        return ((byte[]) node)[index & MASK];
+    }
+
+    /**
+     * Returns the encoded cell at the given position.
+     *
+     * @param pos the 1-based position
+     * @return the cell byte
+     */
+    public byte cell(Position pos) {
+        return cell((pos.row() - 1) * cols + pos.col() - 1);
+    }
+
+    /**
+     * Returns a snapshot with one cell changed. Only the path to the cell is copied.
+     *
+     * @param index the 0-based cell index
+     * @param value the new cell byte
+     * @return the new snapshot, or this snapshot if the cell already has the value
+     */
+    public BoardSnapshot withCell(int index, byte value) {
+        if (cell(index) == value) {
+            return this;
+        }
+        return new BoardSnapshot(rows, cols, shift, withCell(root, shift, index, value));
+    }
+
+    /**
+     * Copies the path to a cell and sets its value.
+     *
+     * @param node the node on the current level
+     * @param level the bit shift of the current level
+     * @param index the cell index
+     * @param value the new cell byte
+     * @return the copied node
+     */
+    private static Object withCell(Object node, int level, int index, byte value) {
+        if (level == 0) {
+            byte[] leaf = ((byte[]) node).clone();
+            leaf[index & MASK] = value;
+            return leaf;
+        }
+        Object[] inner = ((Object[]) node).clone();
+        int slot = (index >>> level) & MASK;
+        inner[slot] = withCell(inner[slot], level - BITS, index, value);
+        return inner;
+    }
+
+    /**
+     * Calls the action with the index of every cell that differs from another snapshot
+     * of the same board. Subtrees shared by both snapshots are skipped.
+     *
+     * @param other the snapshot to compare with
+     * @param action the action receiving the differing cell indices
+     */
+    public void forEachDifference(BoardSnapshot other, IntConsumer action) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("Snapshots of different boards");
+        }
+        forEachDifference(root, other.root, shift, 0, action);
+    }
+
+    /**
+     * Compares two nodes on the same level.
+     *
+     * @param a the node of this snapshot
+     * @param b the node of the other snapshot
+     * @param level the bit shift of the current level
+     * @param base the index of the first cell under the nodes
+     * @param action the action receiving the differing cell indices
+     */
+    private void forEachDifference(Object a, Object b, int level, int base, IntConsumer action) {
+        if (a == b) {
+            return;
+        }
+        if (level == 0) {
+            byte[] leafA = (byte[]) a;
+            byte[] leafB = (byte[]) b;
+            for (int i = 0; i < WIDTH; i++) {
+                if (leafA[i] != leafB[i]) action.accept(base + i);
+            }
+            return;
+        }
+        Object[] innerA = (Object[]) a;
+        Object[] innerB = (Object[]) b;
+        for (int i = 0; i < WIDTH; i++) {
+            if (innerA[i] != null) {
+                forEachDifference(innerA[i], innerB[i], level - BITS, base + (i << level), action);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description The user moves of a game, one entry per node of the undo tree.
+ *              Every move is one clockwise quarter turn, so an entry is just the row-major
+ *              cell index of the rotated node, kept in a growable int array. The TURN text of an entry
+ *              is only rendered when the log is written, from the board snapshot after the move.
+ */
+
+package GameManager;
+
+import GameLogic.Common.Position;
+
+import java.util.Arrays;
+
+public class GameActionLog {
+    private static final String[] SIDE_NAMES = {"NORTH", "EAST", "SOUTH", "WEST"};
+    private static final char[] TYPE_LETTERS = {'E', 'B', 'L', 'P'};
+
+    private int[] entries = new int[64];
+    private int size = 0;
+
+    /**
+     * Appends a move.
+     *
+     * @param cellIndex the row-major index of the rotated node
+     */
+    public void add(int cellIndex) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = cellIndex;
+    }
+
+    /**
+     * Returns the number of logged moves.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the cell index of the node rotated by a move.
+     *
+     * @param entry the entry index
+     * @return the row-major cell index
+     */
+    public int cellIndex(int entry) {
+        return entries[entry];
+    }
+
+    /**
+     * Returns the position of the node rotated by a move.
+     *
+     * @param entry the entry index
+     * @param cols the number of columns of the board
+     * @return the position of the affected node
+     */
+    public Position position(int entry, int cols) {
+        int cell = cellIndex(entry);
+        return new Position(cell / cols + 1, cell % cols + 1);
+    }
+
+    /**
+     * Renders a move as it appears in the log file.
+     *
+     * @param entry the entry index
+     * @param after the board snapshot after the move
+     * @return a formatted TURN log line
+     */
+    public String render(int entry, BoardSnapshot after) {
+        int cell = cellIndex(entry);
+        byte encoded = after.cell(cell);
+        int mask = encoded & 0x0F;
+
+        StringBuilder line = new StringBuilder("TURN {");
+        line.append(TYPE_LETTERS[(encoded >> PuzzlePack.TYPE_SHIFT) & 0x3]);
+        line.append('[').append(cell / after.cols() + 1).append('@').append(cell % after.cols() + 1).append("][");
+        boolean first = true;
+        for (int side = 0; side < SIDE_NAMES.length; side++) {
+            if ((mask & 1 << side) != 0) {
+                if (!first) line.append(',');
+                line.append(SIDE_NAMES[side]);
+                first = false;
+            }
+        }
+        return line.append("]}").toString();
+    }
+}
@@ -0,0 +1,322 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Crash-safe storage of the game log.
+ *              Every record is one text line followed by a tab and the CRC-32 of the line in hex,
+ *              so a torn or damaged record is detected on recovery and the log is replayed
+ *              up to the last valid record. Records reach the operating system on every append;
+ *              the fsync is deferred by a few milliseconds so that all records written
+ *              in that window share one (group commit). A new log content is written
+ *              to a separate segment file and atomically renamed over the log.
+ *
+ *              File: "JOURNAL 1" line, then records. Files without the header line
+ *              are read as plain logs of older versions.
+ */
+
+package GameManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+public class GameJournal {
+    public static final String HEADER = "JOURNAL 1";
+    public static final int GROUP_COMMIT_MILLIS = 10;
+
+    // One thread performs the deferred fsyncs of all journals.
+    private static final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path file;
+    // Opened on the first append, closed by a rollover or by close().
+    private FileChannel channel;
+    private boolean dirty = false;
+    private boolean syncScheduled = false;
+
+    /**
+     * Constructs a journal appending to the given file.
+     *
+     * @param file the log file
+     */
+    public GameJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends a record. It is handed to the operating system immediately
+     * and made durable by the next group commit.
+     *
+     * @param record the record, a single line without tabs
+     * @throws IOException if writing fails
+     */
+    public synchronized void append(String record) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(encode(record));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        dirty = true;
+        if (!syncScheduled) {
+            syncScheduled = true;
+            syncer.schedule(this::syncQuietly, GROUP_COMMIT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Forces all appended records to the disk. Appends are not blocked while the disk is busy.
+     *
+     * @throws IOException if the fsync fails
+     */
+    public void sync() throws IOException {
+        FileChannel target;
+        synchronized (this) {
+            syncScheduled = false;
+            if (!dirty || channel == null) return;
+            dirty = false;
+            target = channel;
+        }
+
+        try {
+            target.force(false);
+        } catch (ClosedChannelException e) {
+            // Rolled over or closed in the meantime; both force the channel before closing it.
+        }
+    }
+
+    /**
+     * Forces all appended records to the disk and closes the file.
+     * A later append opens it again.
+     *
+     * @throws IOException if the fsync or closing fails
+     */
+    public synchronized void close() throws IOException {
+        if (channel == null) return;
+
+        channel.force(false);
+        channel.close();
+        channel = null;
+        dirty = false;
+    }
+
+    /**
+     * Replaces the log by a completely written segment. The segment is renamed over the log atomically,
+     * so after a crash the log holds either all old or all new records.
+     *
+     * @param segment the segment file written by writeSegment and appendToSegment
+     * @throws IOException if the rename fails
+     */
+    public synchronized void rollOver(Path segment) throws IOException {
+        close();
+        Files.move(segment, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(file);
+    }
+
+    /**
+     * Writes a new segment consisting of the header and the given records and forces it to the disk.
+     *
+     * @param segment the segment file, replaced if it exists
+     * @param records the records of the segment
+     * @throws IOException if writing fails
+     */
+    public static void writeSegment(Path segment, List<String> records) throws IOException {
+        writeRecords(segment, records, true);
+    }
+
+    /**
+     * Appends records to a segment written by writeSegment and forces it to the disk.
+     *
+     * @param segment the segment file
+     * @param records the records to append
+     * @throws IOException if writing fails
+     */
+    public static void appendToSegment(Path segment, List<String> records) throws IOException {
+        writeRecords(segment, records, false);
+    }
+
+    /**
+     * Reads all valid records of a journal file without modifying it.
+     * Reading stops at the first damaged record.
+     *
+     * @param file the log file
+     * @return the valid records in order
+     * @throws IOException if reading fails
+     */
+    public static List<String> read(Path file) throws IOException {
+        return scan(file);
+    }
+
+    /**
+     * Parses all valid records of a journal file and cuts off everything after the last valid record,
+     * e.g. a record torn by a crash, so that new records follow a valid one.
+     *
+     * @param file the log file
+     * @param handler the receiver of the records
+     * @throws IOException if reading or truncating fails
+     */
+    public static void recover(Path file, GameLogParser.Handler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        int validLength = GameLogParser.parse(buffer, handler);
+        if (GameLogParser.isJournal(buffer) && validLength < buffer.limit()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Encodes a record as a line with its checksum.
+     *
+     * @param record the record
+     * @return the encoded line including the line break
+     */
+    static byte[] encode(String record) {
+        byte[] payload = record.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        String checksum = String.format("%08x", crc.getValue());
+        byte[] line = new byte[payload.length + 10];
+        System.arraycopy(payload, 0, line, 0, payload.length);
+        line[payload.length] = '\t';
+        for (int i = 0; i < 8; i++) {
+            line[payload.length + 1 + i] = (byte) checksum.charAt(i);
+        }
+        line[line.length - 1] = '\n';
+        return line;
+    }
+
+    /**
+     * Decodes a line without its line break.
+     *
+     * @param line the buffer holding the line
+     * @param from the first byte of the line
+     * @param to the byte after the line
+     * @return the record, or null if the line is not a valid record
+     */
+    private static String decode(byte[] line, int from, int to) {
+        int payloadEnd = to - 9;
+        if (payloadEnd < from || line[payloadEnd] != '\t') return null;
+
+        long expected = 0;
+        for (int i = payloadEnd + 1; i < to; i++) {
+            int digit = Character.digit(line[i], 16);
+            if (digit < 0) return null;
+            expected = expected << 4 | digit;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(line, from, payloadEnd - from);
+        if (crc.getValue() != expected) return null;
+
+        return new String(line, from, payloadEnd - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a journal file up to its last valid record.
+     *
+     * @param file the log file
+     * @return the valid records in order
+     * @throws IOException if reading fails
+     */
+    private static List<String> scan(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        List<String> records = new ArrayList<>();
+
+        int headerEnd = HEADER.length();
+        boolean framed = data.length > headerEnd && data[headerEnd] == '\n'
+                && new String(data, 0, headerEnd, StandardCharsets.US_ASCII).equals(HEADER);
+
+        int position = framed ? headerEnd + 1 : 0;
+        while (position < data.length) {
+            int end = position;
+            while (end < data.length && data[end] != '\n') end++;
+            if (end == data.length && framed) break;
+
+            int lineEnd = end > position && data[end - 1] == '\r' ? end - 1 : end;
+            String record = decode(data, position, lineEnd);
+            if (record == null) {
+                if (framed) break;
+                // Lines of older logs carry no checksum.
+                record = new String(data, position, lineEnd - position, StandardCharsets.UTF_8);
+            }
+
+            records.add(record);
+            position = Math.min(end + 1, data.length);
+        }
+
+        return records;
+    }
+
+    /**
+     * Writes records to a segment file and forces it to the disk.
+     *
+     * @param segment the segment file
+     * @param records the records
+     * @param create true to start the segment with the header, false to append to it
+     * @throws IOException if writing fails
+     */
+    private static void writeRecords(Path segment, List<String> records, boolean create) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (create) {
+            out.writeBytes((HEADER + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+        for (String record : records) {
+            out.writeBytes(encode(record));
+        }
+
+        StandardOpenOption mode = create ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to the disk where the platform supports it.
+     *
+     * @param file the renamed file
+     */
+    private static void syncDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on every platform; the rename itself is still atomic.
+        }
+    }
+
+    /**
+     * Performs a scheduled group commit.
+     */
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Single-pass parser of the game log working directly on the bytes of a ByteBuffer.
+ *              Records are reported to a handler as primitive values, so parsing allocates
+ *              nothing per record. Journal records (see GameJournal) are checked against their CRC
+ *              and parsing stops at the first damaged one; logs without the journal header
+ *              are parsed line by line without checks. Unknown records are skipped.
+ *
+ *              Nodes are reported as the type ordinal (GameNodeType), 1-based row and column
+ *              and the connector mask (north 1, east 2, south 4, west 8).
+ */
+
+package GameManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+public class GameLogParser {
+    private static final byte[] HEADER = (GameJournal.HEADER + "\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END_INITIAL_STATE = "END INITIAL STATE".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Receives the parsed records in the order of the log.
+     */
+    public interface Handler {
+        void size(int rows, int cols);
+
+        void node(int type, int row, int col, int mask);
+
+        void endInitialState();
+
+        void turn(int row, int col, int mask);
+
+        void undo();
+
+        void redo();
+
+        void jump(int node);
+    }
+
+    private final ByteBuffer buffer;
+    private final Handler handler;
+    private final CRC32 crc = new CRC32();
+    // Read position inside the record being parsed, -1 once the record turns out to be malformed.
+    private int cursor;
+    private int recordEnd;
+
+    private GameLogParser(ByteBuffer buffer, Handler handler) {
+        this.buffer = buffer;
+        this.handler = handler;
+    }
+
+    /**
+     * Parses the log between the buffer's position and limit. The buffer's position and limit are kept.
+     *
+     * @param buffer the log bytes
+     * @param handler the receiver of the records
+     * @return the number of bytes from the position up to the end of the last valid record;
+     *         anything after it is a damaged journal tail
+     */
+    public static int parse(ByteBuffer buffer, Handler handler) {
+        return new GameLogParser(buffer, handler).run();
+    }
+
+    /**
+     * Checks whether the buffer starts with the journal header at its position.
+     *
+     * @param buffer the log bytes
+     * @return true if the log is a journal with checksums
+     */
+    public static boolean isJournal(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.limit() - start < HEADER.length) return false;
+        for (int i = 0; i < HEADER.length; i++) {
+            if (buffer.get(start + i) != HEADER[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses all records.
+     *
+     * @return the length of the valid part
+     */
+    private int run() {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        boolean framed = isJournal(buffer);
+
+        int position = framed ? start + HEADER.length : start;
+        int validEnd = position;
+        while (position < limit) {
+            int end = position;
+            while (end < limit && buffer.get(end) != '\n') end++;
+            if (end == limit && framed) break;
+
+            int lineEnd = end > position && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            int payloadEnd = checkedPayloadEnd(position, lineEnd);
+            if (payloadEnd < 0) {
+                if (framed) break;
+                payloadEnd = lineEnd;
+            }
+
+            parseRecord(position, payloadEnd);
+            position = Math.min(end + 1, limit);
+            validEnd = position;
+        }
+
+        return validEnd - start;
+    }
+
+    /**
+     * Validates the checksum suffix of a journal line.
+     *
+     * @param from the first byte of the line
+     * @param to the byte after the line
+     * @return the end of the record without the suffix, or -1 if the line is not a valid journal record
+     */
+    private int checkedPayloadEnd(int from, int to) {
+        int payloadEnd = to - 9;
+        if (payloadEnd < from || buffer.get(payloadEnd) != '\t') return -1;
+
+        long expected = 0;
+        for (int i = payloadEnd + 1; i < to; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0) return -1;
+            expected = expected << 4 | digit;
+        }
+
+        int position = buffer.position();
+        int limit = buffer.limit();
+        buffer.limit(payloadEnd).position(from);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(limit).position(position);
+
+        return crc.getValue() == expected ? payloadEnd : -1;
+    }
+
+    /**
+     * Parses one record and reports it to the handler if it is well-formed.
+     *
+     * @param from the first byte of the record
+     * @param to the byte after the record
+     */
+    private void parseRecord(int from, int to) {
+        cursor = from + 4;
+        recordEnd = to;
+        if (to - from < 4) return;
+
+        byte b0 = buffer.get(from), b1 = buffer.get(from + 1), b2 = buffer.get(from + 2), b3 = buffer.get(from + 3);
+        if (b0 == 'T' && b1 == 'U' && b2 == 'R' && b3 == 'N') {
+            parseNode(false);
+        }
+        else if (b0 == 'N' && b1 == 'O' && b2 == 'D' && b3 == 'E') {
+            parseNode(true);
+        }
+        else if (b0 == 'U' && b1 == 'N' && b2 == 'D' && b3 == 'O' && to - from == 4) {
+            handler.undo();
+        }
+        else if (b0 == 'R' && b1 == 'E' && b2 == 'D' && b3 == 'O' && to - from == 4) {
+            handler.redo();
+        }
+        else if (b0 == 'G' && b1 == 'O' && b2 == 'T' && b3 == 'O') {
+            expect(' ');
+            int node = number();
+            if (cursor == recordEnd) handler.jump(node);
+        }
+        else if (b0 == 'S' && b1 == 'I' && b2 == 'Z' && b3 == 'E') {
+            expect(' ');
+            int rows = number();
+            expect(' ');
+            int cols = number();
+            if (cursor == recordEnd) handler.size(rows, cols);
+        }
+        else if (matches(from, to, END_INITIAL_STATE)) {
+            handler.endInitialState();
+        }
+    }
+
+    /**
+     * Parses the rest of a NODE or TURN record: " {T[row@col][SIDE,...]}".
+     *
+     * @param definition true for a NODE record, false for a TURN record
+     */
+    private void parseNode(boolean definition) {
+        expect(' ');
+        expect('{');
+        int type = cursor >= 0 && cursor < recordEnd ? typeOrdinal(buffer.get(cursor++)) : -1;
+        if (type < 0) return;
+        expect('[');
+        int row = number();
+        expect('@');
+        int col = number();
+        expect(']');
+        expect('[');
+
+        int mask = 0;
+        while (cursor >= 0 && cursor < recordEnd && buffer.get(cursor) != ']') {
+            int side = side();
+            if (side < 0) return;
+            mask |= side;
+            if (cursor < recordEnd && buffer.get(cursor) == ',') cursor++;
+        }
+        expect(']');
+        expect('}');
+        if (cursor != recordEnd) return;
+
+        if (definition) {
+            handler.node(type, row, col, mask);
+        }
+        else {
+            handler.turn(row, col, mask);
+        }
+    }
+
+    /**
+     * Reads a side name and returns its connector bit.
+     *
+     * @return the connector bit, or -1 if no side name follows
+     */
+    private int side() {
+        int bit;
+        int length;
+        switch (buffer.get(cursor)) {
+            case 'N' -> { bit = 1; length = 5; }
+            case 'E' -> { bit = 2; length = 4; }
+            case 'S' -> { bit = 4; length = 5; }
+            case 'W' -> { bit = 8; length = 4; }
+            default -> { return -1; }
+        }
+        if (recordEnd - cursor < length) return -1;
+        cursor += length;
+        return bit;
+    }
+
+    /**
+     * Reads a non-negative decimal number.
+     *
+     * @return the number, or -1 if no digit follows
+     */
+    private int number() {
+        if (cursor < 0) return -1;
+        int start = cursor;
+        int value = 0;
+        while (cursor < recordEnd) {
+            int digit = buffer.get(cursor) - '0';
+            if (digit < 0 || digit > 9) break;
+            value = value * 10 + digit;
+            cursor++;
+        }
+        if (cursor == start) {
+            cursor = -1;
+            return -1;
+        }
+        return value;
+    }
+
+    /**
+     * Skips the expected byte, or marks the record as malformed.
+     *
+     * @param expected the expected byte
+     */
+    private void expect(char expected) {
+        if (cursor >= 0 && cursor < recordEnd && buffer.get(cursor) == expected) {
+            cursor++;
+        }
+        else {
+            cursor = -1;
+        }
+    }
+
+    /**
+     * Checks whether a record equals the given bytes.
+     *
+     * @param from the first byte of the record
+     * @param to the byte after the record
+     * @param expected the expected bytes
+     * @return true if the record matches
+     */
+    private boolean matches(int from, int to, byte[] expected) {
+        if (to - from != expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(from + i) != expected[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Maps a node type letter to the ordinal of GameNodeType.
+     *
+     * @param letter the type letter
+     * @return the type ordinal, or -1 for an unknown letter
+     */
+    private static int typeOrdinal(byte letter) {
+        return switch (letter) {
+            case 'E' -> 0;
+            case 'B' -> 1;
+            case 'L' -> 2;
+            case 'P' -> 3;
+            default -> -1;
+        };
+    }
+}
@@ -2,58 +2,112 @@
  * IJA Project
  * @author Tomáš Boudný (xboudn05)
  * @Description Responsible for logging the game's progress to a file.
- *              Handles saving the initial state, recording rotations, and truncating logs
- *              when switching between replay and live play modes.
+ *              Handles saving the initial state, recording rotations and navigation
+ *              in the undo tree. The log is a crash-safe journal (see GameJournal) that is only
+ *              ever appended to; once enough navigation entries accumulate, it is compacted
+ *              in the background and atomically replaced.
+ *              Every game session owns its logger instance with its own log file, so several games
+ *              can run in one process, each on its own thread.
  */
 
 package GameManager;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import GameLogic.Game.Game;
 import GameLogic.Common.*;
+import GameMetrics.Counter;
+import GameMetrics.EngineEvents;
+import GameMetrics.Histogram;
+import GameMetrics.Metrics;
 
 public class GameLogger {
-    private static final File logFile = new File("log.txt");;
-    private static final List<String> initialNodeLines = new ArrayList<>();
+    // Navigation entries (UNDO, REDO, GOTO) that trigger a compaction.
+    private static final int COMPACTION_THRESHOLD = 4096;
+
+    // One shared thread compacts the logs of all sessions, compactions are rare.
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Histogram writeTime = Metrics.histogram(Metrics.LOG_WRITE);
+    private static final Counter writtenChars = Metrics.counter(Metrics.LOG_CHARS);
+
+    private final File logFile;
+    private final GameJournal journal;
+    private int garbageLines = 0;
+    // Lines appended while a compaction is running, null otherwise.
+    private List<String> pendingLines = null;
+    // The compaction submitted last, null if none is queued or running.
+    private Future<?> pendingCompaction = null;
+    // Bumped whenever the log is replaced or closed; a compaction started before is dropped.
+    private long generation = 0;
+
+    /**
+     * Constructs a logger writing to the default log file "log.txt" in the working directory.
+     */
+    public GameLogger() {
+        this(new File("log.txt"));
+    }
+
+    /**
+     * Constructs a logger writing to the given log file.
+     *
+     * @param logFile the file the game log is written to
+     */
+    public GameLogger(File logFile) {
+        this.logFile = logFile;
+        this.journal = new GameJournal(logFile.toPath());
+    }
+
+    /**
+     * Returns the file this logger writes to.
+     *
+     * @return the log file
+     */
+    public File getLogFile() {
+        return logFile;
+    }
 
     /**
      * Saves the initial state of the game to the log file.
      * This includes the board size and all NODE definitions.
+     * The previous content of the log is replaced atomically.
      *
      * @param game the game instance whose state should be saved
      * @throws IOException if writing to the log file fails
      */
-    public static void saveInitialGameState(Game game) throws IOException {
-        try (PrintWriter out = new PrintWriter(new FileWriter(logFile))) {
-            out.println("SIZE " + game.rows() + " " + game.cols());
-
-            for (int r = 1; r <= game.rows(); r++) {
-                for (int c = 1; c <= game.cols(); c++) {
-                    GameNode node = game.node(new Position(r, c));
-                    if (node != null) {
-                        String nodeLine = "NODE " + node.toString();
-                        out.println(nodeLine);
-                        initialNodeLines.add(nodeLine);
-                    }
+    public synchronized void saveInitialGameState(Game game) throws IOException {
+        generation++;
+        garbageLines = 0;
+        pendingLines = null;
+        pendingCompaction = null;
+
+        List<String> records = new ArrayList<>();
+        records.add("SIZE " + game.rows() + " " + game.cols());
+        for (int r = 1; r <= game.rows(); r++) {
+            for (int c = 1; c <= game.cols(); c++) {
+                GameNode node = game.node(new Position(r, c));
+                if (node != null) {
+                    records.add("NODE " + node.toString());
                 }
             }
         }
-    }
 
-    /**
-     * Adds a TURN entry to the in-memory initial log list.
-     * Used before the actual game starts, to record rotations done during generation/shuffling.
-     *
-     * @param node the game node that was rotated before gameplay started
-     */
-    public static void addInitialGameTurn(GameNode node) {
-        initialNodeLines.add("TURN " + node.toString());
+        Path segment = siblingFile(".segment");
+        GameJournal.writeSegment(segment, records);
+        journal.rollOver(segment);
     }
 
     /**
@@ -62,51 +116,206 @@ public class GameLogger {
      *
      * @param node the node that was rotated
      */
-    public static void appendTurn(GameNode node) {
-        try (PrintWriter out = new PrintWriter(new FileWriter(logFile, true))) {
-            out.println("TURN " + node.toString());
-        } catch (IOException e) {
-            System.err.println(e.getMessage());
-        }
+    public synchronized void appendTurn(GameNode node) {
+        appendLine("TURN " + node.toString());
     }
 
     /**
      * Appends a marker line to the log file indicating the end of the initial game setup section.
      * This separates node definitions from user actions in the log.
      */
-    public static void endInitialState() {
-        try (PrintWriter out = new PrintWriter(new FileWriter(logFile, true))) {
-            out.println("END INITIAL STATE");
+    public synchronized void endInitialState() {
+        appendLine("END INITIAL STATE");
+    }
+
+    /**
+     * Appends an UNDO entry, moving the logged history position to the parent step.
+     */
+    public synchronized void appendUndo() {
+        appendLine("UNDO");
+        garbageLines++;
+    }
+
+    /**
+     * Appends a REDO entry, moving the logged history position to the selected child step.
+     */
+    public synchronized void appendRedo() {
+        appendLine("REDO");
+        garbageLines++;
+    }
+
+    /**
+     * Appends a GOTO entry, moving the logged history position to the given step.
+     * Steps are numbered by the order of TURN entries after the initial state, starting with 1;
+     * 0 is the state before the first move.
+     *
+     * @param node the id of the history node
+     */
+    public synchronized void appendGoto(int node) {
+        appendLine("GOTO " + node);
+        garbageLines++;
+    }
+
+    /**
+     * Checks whether enough navigation entries accumulated for a compaction to pay off
+     * and no compaction is running.
+     *
+     * @return true if the log should be compacted
+     */
+    public synchronized boolean needsCompaction() {
+        return pendingLines == null && garbageLines >= COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Rewrites the log in the background. The initial state section is copied from the current file,
+     * followed by the given history lines and by any lines appended in the meantime.
+     * The new file replaces the old one by an atomic rename, so a crash leaves either of them intact.
+     * If the initial state is saved again or the logger is closed before the compaction finishes,
+     * the compaction is dropped.
+     *
+     * @param historyLines the compact form of the history after the initial state
+     */
+    public synchronized void compactInBackground(List<String> historyLines) {
+        if (pendingLines != null) return;
+
+        pendingLines = new ArrayList<>();
+        garbageLines = 0;
+        long startGeneration = generation;
+        pendingCompaction = compactor.submit(() -> compact(historyLines, startGeneration));
+    }
+
+    /**
+     * Writes the compacted log to a temporary file and moves it over the log file,
+     * unless the log was replaced or closed since the compaction was started.
+     *
+     * @param historyLines the compact form of the history after the initial state
+     * @param startGeneration the generation of the log when the compaction was started
+     */
+    private void compact(List<String> historyLines, long startGeneration) {
+        synchronized (this) {
+            if (generation != startGeneration) return;
+        }
+
+        Path segment = siblingFile(".compact");
+        try {
+            List<String> records = new ArrayList<>();
+            boolean initialStateFound = false;
+            for (String record : GameJournal.read(logFile.toPath())) {
+                records.add(record);
+                if (record.equals("END INITIAL STATE")) {
+                    initialStateFound = true;
+                    break;
+                }
+            }
+            records.addAll(historyLines);
+
+            if (initialStateFound) {
+                GameJournal.writeSegment(segment, records);
+                synchronized (this) {
+                    // The initial state read above may already be stale
+                    if (generation == startGeneration) {
+                        GameJournal.appendToSegment(segment, pendingLines);
+                        journal.rollOver(segment);
+                    }
+                }
+            }
         } catch (IOException e) {
             System.err.println(e.getMessage());
+        } finally {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    pendingLines = null;
+                    pendingCompaction = null;
+                }
+            }
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
         }
     }
 
     /**
-     * Truncates the log file to reflect the current game state.
-     * Keeps SIZE and NODE entries, then includes only performed TURN entries
-     * up to the current step index.
+     * Parses the log, cutting off a record torn by a crash.
      *
-     * @param actionLog the list of all logged actions
-     * @param currentStepIndex the index of the last executed step
-     * @param rows the number of rows in the game board
-     * @param cols the number of columns in the game board
+     * @param handler the receiver of the valid records
+     * @throws IOException if reading the log fails
      */
-    public static void truncateToCurrentStep(List<GameActionLogEntry> actionLog, int currentStepIndex, int rows, int cols) {
-        try (PrintWriter out = new PrintWriter(new FileWriter(logFile))) {
-            out.println("SIZE " + rows + " " + cols);
+    public synchronized void recover(GameLogParser.Handler handler) throws IOException {
+        GameJournal.recover(logFile.toPath(), handler);
+    }
 
-            for (String nodeLine : initialNodeLines) {
-                out.println(nodeLine);
-            }
+    /**
+     * Forces all logged records to the disk and closes the log file.
+     * A pending compaction is dropped and waited for, so it cannot replace the file afterwards,
+     * e.g. when another logger opens the same file.
+     * Logging again reopens it.
+     */
+    public void close() {
+        Future<?> compaction;
+        synchronized (this) {
+            generation++;
+            garbageLines = 0;
+            pendingLines = null;
+            compaction = pendingCompaction;
+            pendingCompaction = null;
+        }
 
-            out.println("END INITIAL STATE");
+        // Outside the lock, the compaction takes it to see that it was dropped
+        if (compaction != null) {
+            try {
+                compaction.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.err.println(e.getCause().getMessage());
+            }
+        }
 
-            for (int i = 0; i <= currentStepIndex; i++) {
-                out.println(actionLog.get(i).toString());
+        synchronized (this) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
             }
+        }
+    }
+
+    /**
+     * Returns a temporary file next to the log file.
+     *
+     * @param suffix the suffix appended to the log file name
+     * @return the path of the temporary file
+     */
+    private Path siblingFile(String suffix) {
+        Path log = logFile.toPath();
+        return log.resolveSibling(log.getFileName() + suffix);
+    }
+
+    /**
+     * Appends a single line to the log file.
+     * While a compaction runs, the line is also kept for the compacted file.
+     *
+     * @param line the line to append
+     */
+    private void appendLine(String line) {
+        EngineEvents.LogWrite event = new EngineEvents.LogWrite();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            journal.append(line);
         } catch (IOException e) {
             System.err.println(e.getMessage());
         }
+        writeTime.record(System.nanoTime() - start);
+        writtenChars.add(line.length() + 1);
+        if (event.shouldCommit()) {
+            event.record = line;
+            event.commit();
+        }
+        if (pendingLines != null) {
+            pendingLines.add(line);
+        }
     }
-}
\ No newline at end of file
+}
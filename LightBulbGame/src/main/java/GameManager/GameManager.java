@@ -4,52 +4,61 @@
  * @Description Manages the lifecycle of a game instance.
  *              Handles game creation, shuffling, move execution, undo/redo,
  *              replay loading from log, and transition to live gameplay.
+ *              The history is an undo tree: a move made from a past step starts a new branch
+ *              instead of discarding the later steps.
  */
 
 package GameManager;
 
 import GameLogic.Game.Game;
+import GameLogic.Game.PowerNetwork;
 import GameLogic.Common.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import GameMetrics.EngineEvents;
+import GameMetrics.Histogram;
+import GameMetrics.Metrics;
 import java.util.*;
 import java.io.IOException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class GameManager {
+    private static final Histogram rotateTime = Metrics.histogram(Metrics.ROTATE);
+    private static final Histogram loadTime = Metrics.histogram(Metrics.LOG_LOAD);
+
     public Game game;
     public GameTrackingInfo tracking;
     private static final Random rand = new Random();
-    private List<GameActionLogEntry> actionLog;
-    private int currentStepIndex;
+    private final GameLogger logger;
+    // Entry of the history node i is stored at index i - 1.
+    private GameActionLog actionLog;
+    private UndoTree history;
+    private int currentNode;
+    private boolean live;
+    private volatile BoardSnapshot currentSnapshot;
 
     /**
      * Constructs a new game manager and either creates a new game or loads a saved one.
      * If a new game is created, it is shuffled and logged; otherwise the last game is reconstructed from log.
+     * The game is logged to "log.txt" in the working directory.
      *
      * @param difficulty the difficulty level (1 = Easy, 2 = Medium, 3 = Hard)
      * @param createNewGame true to generate a new game; false to load from log file
      */
     public GameManager(int difficulty, boolean createNewGame) {
-        if (createNewGame) {
-            this.game = GenerateGameService.generateByDifficulty(difficulty);
-            this.tracking = new GameTrackingInfo(game.rows(), game.cols());
-            this.actionLog = new ArrayList<>();
-            this.currentStepIndex = -1;
+        this(difficulty, createNewGame, new GameLogger());
+    }
 
-            try {
-                GameLogger.saveInitialGameState(game);
-            } catch (IOException e) {
-                System.err.println(e.getMessage());
-            }
+    /**
+     * Constructs a new game manager logging to the given logger.
+     * Each concurrently running game must use its own logger.
+     *
+     * @param difficulty the difficulty level (1 = Easy, 2 = Medium, 3 = Hard)
+     * @param createNewGame true to generate a new game; false to load from the logger's log file
+     * @param logger the logger of this game session
+     */
+    public GameManager(int difficulty, boolean createNewGame, GameLogger logger) {
+        this.logger = logger;
 
-            while (isAnyBulbIsLight()) {
-                shuffleRandomNodes(this.game);
-            }
-            this.tracking.saveCurrentAsInitial();
-            GameLogger.endInitialState();
+        if (createNewGame) {
+            startNewGame(GenerateGameService.generateByDifficulty(difficulty));
         }
         else {
             try {
@@ -60,6 +69,135 @@ public class GameManager {
         }
     }
 
+    /**
+     * Constructs a new game manager for a given solved board, e.g. a puzzle loaded from a pack.
+     * The board is shuffled and logged like a generated game.
+     *
+     * @param game the solved board to play
+     * @param logger the logger of this game session
+     */
+    public GameManager(Game game, GameLogger logger) {
+        this.logger = logger;
+        startNewGame(game);
+    }
+
+    /**
+     * Starts a new game on the given solved board: logs its initial state
+     * and shuffles it until no bulb is lit.
+     *
+     * @param game the solved board
+     */
+    private void startNewGame(Game game) {
+        this.game = game;
+        this.tracking = new GameTrackingInfo(game.rows(), game.cols());
+        for (int r = 1; r <= game.rows(); r++) {
+            for (int c = 1; c <= game.cols(); c++) {
+                GameNode node = game.node(new Position(r, c));
+                if (node != null) {
+                    tracking.setOrientationCount(node.getPosition(), Orientations.count(node));
+                }
+            }
+        }
+        this.actionLog = new GameActionLog();
+
+        try {
+            logger.saveInitialGameState(game);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+
+        while (isAnyBulbIsLight()) {
+            shuffleRandomNodes(this.game);
+        }
+        this.tracking.saveCurrentAsInitial();
+        logger.endInitialState();
+
+        this.currentSnapshot = BoardSnapshot.of(game);
+        this.history = new UndoTree(currentSnapshot);
+        this.currentNode = UndoTree.ROOT;
+        this.live = true;
+    }
+
+    /**
+     * Forces the log of the game to the disk and closes it.
+     */
+    public void close() {
+        logger.close();
+    }
+
+    /**
+     * Returns the snapshot of the board as it is now. Safe to call from any thread.
+     *
+     * @return the current board snapshot
+     */
+    public BoardSnapshot getCurrentSnapshot() {
+        return currentSnapshot;
+    }
+
+    /**
+     * Returns the undo tree of the game. Node ids are assigned in the order the moves were made.
+     *
+     * @return the history of the game
+     */
+    public UndoTree getHistory() {
+        return history;
+    }
+
+    /**
+     * Returns the history node of the current board state.
+     *
+     * @return the current node id, UndoTree.ROOT before the first move
+     */
+    public int getCurrentNode() {
+        return currentNode;
+    }
+
+    /**
+     * Moves directly to any node of the history, possibly on another branch.
+     * Tracking is updated along the path through the common ancestor in O(depth),
+     * and only nodes that differ between the current and the target snapshot are rotated.
+     *
+     * @param target the target node id
+     * @throws IndexOutOfBoundsException if the node does not exist
+     */
+    public void jumpToNode(int target) {
+        if (target < 0 || target >= history.size()) {
+            throw new IndexOutOfBoundsException("Node " + target + " of " + history.size());
+        }
+
+        int ancestor = history.commonAncestor(currentNode, target);
+        for (int node = currentNode; node != ancestor; node = history.parent(node)) {
+            tracking.rotateUndo(actionLog.position(node - 1, game.cols()));
+        }
+        int[] redoPath = new int[history.depth(target) - history.depth(ancestor)];
+        int count = redoPath.length;
+        for (int node = target; node != ancestor; node = history.parent(node)) {
+            redoPath[--count] = node;
+        }
+        for (int node : redoPath) {
+            tracking.rotate(actionLog.position(node - 1, game.cols()), true);
+        }
+        history.selectBranch(ancestor, target);
+
+        BoardSnapshot from = currentSnapshot;
+        BoardSnapshot to = history.snapshot(target);
+        int cols = game.cols();
+        from.forEachDifference(to, index -> {
+            GameNode node = game.node(new Position(index / cols + 1, index % cols + 1));
+            int turns = Orientations.turnsBetween(node.connectorMask(), to.cell(index));
+            for (int i = 0; i < turns; i++) {
+                node.turn();
+            }
+        });
+
+        currentNode = target;
+        currentSnapshot = to;
+        if (live) {
+            logger.appendGoto(target);
+            compactLogIfNeeded();
+        }
+    }
+
     /**
      * Rotates a node and returns whether all bulbs are lit after the move.
      *
@@ -75,28 +213,56 @@ public class GameManager {
      * Rotates a node at the given position, logs the action, and updates tracking.
      *
      * @param pos the position of the node to rotate
-     * @param userClick true if the rotation was triggered by the user
+     * @param userClick true if the rotation was triggered by the user;
+     *                  a user move in replay mode switches the game to live mode first
      */
     private void rotateNode(Position pos, boolean userClick) {
         GameNode node = game.node(pos);
         if (node == null) {
             return;
         }
+        if (userClick && !live) {
+            switchToLiveMode();
+        }
+
+        EngineEvents.Rotate event = new EngineEvents.Rotate();
+        event.begin();
+        long start = System.nanoTime();
 
         node.turn();
-        GameLogger.appendTurn(node);
+        logger.appendTurn(node);
 
         if (userClick) {
-            GameActionLogEntry entry = new GameActionLogEntry(pos, node.toString());
-            actionLog.add(entry);
-            currentStepIndex++;
+            actionLog.add(cellIndex(pos));
+            currentSnapshot = currentSnapshot.withCell(cellIndex(pos), PuzzlePack.encodeCell(node));
+            currentNode = history.addChild(currentNode, currentSnapshot);
         }
 
         tracking.rotate(node.getPosition(), userClick);
+
+        rotateTime.record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.row = pos.row();
+            event.col = pos.col();
+            event.mask = node.connectorMask();
+            event.userClick = userClick;
+            event.commit();
+        }
     }
 
     /**
-     * Randomly rotates each node on the board 0 to 3 times to shuffle the puzzle.
+     * Converts a 1-based position into a row-major cell index.
+     *
+     * @param pos the position of the node
+     * @return the cell index
+     */
+    private int cellIndex(Position pos) {
+        return (pos.row() - 1) * game.cols() + pos.col() - 1;
+    }
+
+    /**
+     * Randomly turns each node on the board into one of its distinct orientations
+     * to shuffle the puzzle, so symmetric tiles are never turned back into the same shape.
      *
      * @param game the game instance to shuffle
      */
@@ -104,31 +270,45 @@ public class GameManager {
         for (int r = 1; r <= game.rows(); r++) {
             for (int c = 1; c <= game.cols(); c++) {
                 Position pos = new Position(r, c);
-                int times = rand.nextInt(4);
+                GameNode node = game.node(pos);
+                int times = node == null ? 0 : rand.nextInt(Orientations.count(node));
                 for (int i = 0; i < times; i++) {
                     rotateNode(pos, false);
-                    GameLogger.addInitialGameTurn(game.node(pos));
                 }
             }
         }
     }
 
     /**
-     * Checks if all bulbs in the game are currently lit.
+     * Checks if all bulbs in the game are connected to a power node.
      *
-     * @return true if every bulb is lit
+     * @return true if every bulb is powered
      */
     private boolean areEveryBulbIsLight() {
-        for (int r = 1; r <= game.rows(); r++) {
-            for (int c = 1; c <= game.cols(); c++) {
-                GameNode node = game.node(new Position(r, c));
-                if (node != null && node.isBulb() && !node.light()) {
-                    return false;
-                }
-            }
-        }
+        return analyzeNetwork().allBulbsPowered(game);
+    }
+
+    /**
+     * Analyses the connected components of the current board,
+     * e.g. which of them are powered and where connectors are left open.
+     *
+     * @return the analysis of the current board
+     */
+    public PowerNetwork analyzeNetwork() {
+        return PowerNetwork.of(game);
+    }
 
-        return true;
+    /**
+     * Returns the fewest clockwise turns that bring a node into its solved orientation.
+     * Symmetric tiles need fewer turns than the tracked steps, e.g. a straight wire at most one.
+     *
+     * @param pos the position of the node
+     * @return the number of turns, 0 to 3
+     */
+    public int remainingTurns(Position pos) {
+        GameNode node = game.node(pos);
+        int steps = tracking.getCurrentStep(pos);
+        return node == null ? steps : steps % Orientations.count(node);
     }
 
     /**
@@ -151,16 +331,15 @@ public class GameManager {
 
     /**
      * Switches from replay mode to live gameplay.
-     * Discards all future logged actions and rewrites the log file to current state.
+     * The whole history is kept; further moves from the current step start a new branch.
+     * Only the current position in the history is appended to the log.
      */
     public void switchToLiveMode() {
-        if (currentStepIndex < actionLog.size() - 1) {
-            actionLog.subList(currentStepIndex + 1, actionLog.size()).clear();
-        }
+        if (live) return;
 
-        GameLogger.truncateToCurrentStep(actionLog, currentStepIndex, game.rows(), game.cols());
-        actionLog.clear();
-        currentStepIndex = -1;
+        live = true;
+        logger.appendGoto(currentNode);
+        compactLogIfNeeded();
     }
 
     /**
@@ -169,7 +348,7 @@ public class GameManager {
      * @return true if undo can be performed
      */
     public boolean canUndo() {
-        return currentStepIndex >= 0;
+        return currentNode != UndoTree.ROOT;
     }
 
     /**
@@ -178,7 +357,7 @@ public class GameManager {
      * @return true if redo can be performed
      */
     public boolean canRedo() {
-        return currentStepIndex + 1 < actionLog.size();
+        return history.redoChild(currentNode) != UndoTree.NONE;
     }
 
     /**
@@ -186,109 +365,197 @@ public class GameManager {
      * and adjusting the tracking state accordingly.
      */
     public void undo() {
-        if (currentStepIndex < 0) return;
+        if (currentNode == UndoTree.ROOT) return;
 
-        GameActionLogEntry entry = actionLog.get(currentStepIndex);
-        Position pos = entry.getPosition();
+        Position pos = actionLog.position(currentNode - 1, game.cols());
         GameNode node = game.node(pos);
 
         for (int i = 0; i < 3; i++) node.turn();
 
         tracking.rotateUndo(pos);
-        currentStepIndex--;
+        currentNode = history.parent(currentNode);
+        currentSnapshot = history.snapshot(currentNode);
+        if (live) {
+            logger.appendUndo();
+            compactLogIfNeeded();
+        }
     }
 
     /**
-     * Redoes the next action by rotating the node forward
+     * Redoes the next action on the most recently selected branch by rotating the node forward
      * and updating the tracking state.
      */
     public void redo() {
-        if (currentStepIndex + 1 >= actionLog.size()) return;
+        int next = history.redoChild(currentNode);
+        if (next == UndoTree.NONE) return;
 
-        GameActionLogEntry entry = actionLog.get(currentStepIndex + 1);
-        Position pos = entry.getPosition();
+        Position pos = actionLog.position(next - 1, game.cols());
         GameNode node = game.node(pos);
 
         node.turn();
         tracking.rotate(pos, true);
-        currentStepIndex++;
+        currentNode = next;
+        currentSnapshot = history.snapshot(currentNode);
+        if (live) {
+            logger.appendRedo();
+            compactLogIfNeeded();
+        }
+    }
+
+    /**
+     * Starts a background compaction of the log once it holds too many navigation entries.
+     */
+    private void compactLogIfNeeded() {
+        if (logger.needsCompaction()) {
+            logger.compactInBackground(compactHistoryLines());
+        }
+    }
+
+    /**
+     * Writes the history as the shortest log that rebuilds it: every move once, in node order,
+     * preceded by a GOTO to its parent where it does not continue the previous move,
+     * and a final GOTO to the current node. Redo choices off the current path
+     * fall back to the most recent branch.
+     *
+     * @return the log lines following the initial state
+     */
+    private List<String> compactHistoryLines() {
+        List<String> lines = new ArrayList<>();
+        int cursor = UndoTree.ROOT;
+        for (int node = 1; node < history.size(); node++) {
+            if (history.parent(node) != cursor) {
+                lines.add("GOTO " + history.parent(node));
+            }
+            lines.add(actionLog.render(node - 1, history.snapshot(node)));
+            cursor = node;
+        }
+        if (cursor != currentNode) {
+            lines.add("GOTO " + currentNode);
+        }
+        return lines;
     }
 
     /**
      * Loads a game from a log file, reconstructs the board, and replays actions
      * that occurred after the initial state. Differentiates between setup and gameplay using
-     * an "END INITIAL STATE" marker.
+     * an "END INITIAL STATE" marker. User moves (TURN) and navigation (UNDO, REDO, GOTO)
+     * rebuild the undo tree without touching the board; the board is then moved directly
+     * to the last logged position. The game stays in replay mode.
+     * The log is parsed in a single pass; a record torn by a crash and everything after it
+     * is cut off the log.
      *
      * @throws IOException if reading the log file fails
      */
     public void loadFromLogAndRecreateGame() throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get("log.txt"));
-        int rows = 0, cols = 0;
-
-        List<GameActionLogEntry> log = new ArrayList<>();
-
-        // 1. Create Game.
-        for (String line : lines) {
-            if (line.startsWith("SIZE")) {
-                String[] parts = line.split(" ");
-                rows = Integer.parseInt(parts[1]);
-                cols = Integer.parseInt(parts[2]);
-                this.game = Game.create(rows, cols);
-                this.tracking = new GameTrackingInfo(rows, cols);
-            }
-        }
+        EngineEvents.LogLoad event = new EngineEvents.LogLoad();
+        event.begin();
+        long start = System.nanoTime();
+
+        GameActionLog log = new GameActionLog();
+        this.actionLog = log;
+        this.history = null;
 
-        // 2. Create Nodes.
-        Pattern pattern = Pattern.compile("\\{(\\w)\\[(\\d+)@(\\d+)]\\[([A-Z,]*)]}");
-        for (String line : lines) {
-            if (!line.startsWith("NODE")) continue;
+        var loader = new GameLogParser.Handler() {
+            int cursor = UndoTree.ROOT;
 
-            Matcher m = pattern.matcher(line.substring(5));
-            if (m.matches()) {
-                String type = m.group(1);
-                int row = Integer.parseInt(m.group(2));
-                int col = Integer.parseInt(m.group(3));
-                String[] sideNames = m.group(4).split(",");
-                Set<Side> sides = Arrays.stream(sideNames).filter(s -> !s.isEmpty()).map(Side::valueOf).collect(Collectors.toSet());
+            @Override
+            public void size(int rows, int cols) {
+                game = Game.create(rows, cols);
+                tracking = new GameTrackingInfo(rows, cols);
+            }
 
+            @Override
+            public void node(int type, int row, int col, int mask) {
                 Position pos = new Position(row, col);
-                switch (type) {
-                    case "L" -> game.createLinkNode(pos, sides.toArray(new Side[0]));
-                    case "B" -> game.createBulbNode(pos, sides.iterator().next());
-                    case "P" -> game.createPowerNode(pos, sides.toArray(new Side[0]));
+                Side[] sides = sidesOf(mask);
+                tracking.setOrientationCount(pos, Orientations.count(mask));
+                switch (GameNodeType.values()[type]) {
+                    case LINK -> game.createLinkNode(pos, sides);
+                    case BULB -> game.createBulbNode(pos, sides[0]);
+                    case POWER -> game.createPowerNode(pos, sides);
+                    default -> { }
                 }
             }
-        }
 
-        boolean initialStateDone = false;
+            @Override
+            public void endInitialState() {
+                history = new UndoTree(BoardSnapshot.of(game));
+            }
 
-        // 3. Make turns.
-        for (String line : lines) {
-            if (line.equals("END INITIAL STATE")) {
-                initialStateDone = true;
+            @Override
+            public void turn(int row, int col, int mask) {
+                if (history == null) {
+                    Position pos = new Position(row, col);
+                    game.node(pos).turn();
+                    tracking.rotate(pos, false);
+                    return;
+                }
+
+                int index = (row - 1) * game.cols() + col - 1;
+                log.add(index);
+                BoardSnapshot snapshot = history.snapshot(cursor);
+                cursor = history.addChild(cursor, snapshot.withCell(index, rotateCell(snapshot.cell(index))));
             }
-            else if (!line.startsWith("TURN")) continue;
 
-            Matcher m = pattern.matcher(line.substring(5));
-            if (m.matches()) {
-                int row = Integer.parseInt(m.group(2));
-                int col = Integer.parseInt(m.group(3));
-                Position pos = new Position(row, col);
-                GameNode node = game.node(pos);
+            @Override
+            public void undo() {
+                if (history != null && cursor != UndoTree.ROOT) cursor = history.parent(cursor);
+            }
 
-                if (initialStateDone) {
-                    GameActionLogEntry entry = new GameActionLogEntry(pos, node.toString());
-                    log.add(entry);
-                }
+            @Override
+            public void redo() {
+                if (history != null && history.redoChild(cursor) != UndoTree.NONE) cursor = history.redoChild(cursor);
+            }
 
-                node.turn();
-                tracking.rotate(pos, initialStateDone);
+            @Override
+            public void jump(int node) {
+                if (history == null) return;
+                history.selectBranch(history.commonAncestor(cursor, node), node);
+                cursor = node;
             }
-        }
+        };
+        logger.recover(loader);
 
-        this.actionLog = log;
-        this.currentStepIndex = log.size() - 1;
+        if (history == null) {
+            this.history = new UndoTree(BoardSnapshot.of(game));
+        }
+        this.currentNode = UndoTree.ROOT;
+        this.currentSnapshot = history.snapshot(UndoTree.ROOT);
+        this.live = false;
+        jumpToNode(loader.cursor);
 
         this.game.updateGame();
+
+        loadTime.record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.turns = log.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Converts a connector mask (north 1, east 2, south 4, west 8) into the connected sides.
+     *
+     * @param mask the connector mask
+     * @return the connected sides
+     */
+    private static Side[] sidesOf(int mask) {
+        Side[] order = {Side.NORTH, Side.EAST, Side.SOUTH, Side.WEST};
+        Side[] sides = new Side[Integer.bitCount(mask)];
+        int count = 0;
+        for (int i = 0; i < order.length; i++) {
+            if ((mask & 1 << i) != 0) sides[count++] = order[i];
+        }
+        return sides;
+    }
+
+    /**
+     * Rotates an encoded cell clockwise by one step without touching any node.
+     *
+     * @param cell the encoded cell
+     * @return the encoded cell after the rotation
+     */
+    private static byte rotateCell(byte cell) {
+        return (byte) ((cell & ~0x0F) | Orientations.rotate(cell & 0x0F, 1));
     }
-}
\ No newline at end of file
+}
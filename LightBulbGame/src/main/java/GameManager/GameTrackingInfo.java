@@ -4,19 +4,32 @@
  * @Description Provides tracking for user interactions with the game.
  *              Stores the number of rotations needed for each tile,
  *              actual user clicks, and supports undo/redo operations.
+ *              Steps (0–3) are packed as 2-bit values into long words; click counters
+ *              start as one byte per cell and widen only when a counter overflows.
+ *              The orientation checks compare whole words, 32 cells at a time.
  */
 
 package GameManager;
 
 import GameLogic.Common.*;
 
+import java.util.Arrays;
+
 public class GameTrackingInfo {
+    private static final int CELLS_PER_WORD = 32;
+
     private final int rows;
     private final int cols;
 
-    private final int[][] initialSteps;
-    private final int[][] currentSteps;
-    private final int[][] userClicks;
+    private final long[] initialSteps;
+    private final long[] currentSteps;
+    // Per cell the step bits that change the orientation of its tile: 3 for tiles with
+    // four orientations, 1 for two (a straight wire), 0 for one (a cross or an empty cell)
+    private final long[] orientationMasks;
+    // Exactly one of the click arrays is in use, chosen by the largest counter.
+    private byte[] userClicks8;
+    private char[] userClicks16;
+    private int[] userClicks32;
     private int totalClicks;
 
     /**
@@ -28,9 +41,11 @@ public class GameTrackingInfo {
     public GameTrackingInfo(int rows, int cols) {
         this.rows = rows;
         this.cols = cols;
-        this.initialSteps = new int[rows][cols];
-        this.currentSteps = new int[rows][cols];
-        this.userClicks = new int[rows][cols];
+        int words = (rows * cols + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+        this.initialSteps = new long[words];
+        this.currentSteps = new long[words];
+        this.orientationMasks = new long[words];
+        Arrays.fill(orientationMasks, -1L);
         this.totalClicks = 0;
         setInitialSteps();
     }
@@ -40,13 +55,11 @@ public class GameTrackingInfo {
      * Called during construction or to reset the tracking state.
      */
     public void setInitialSteps() {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                initialSteps[i][j] = 0;
-                currentSteps[i][j] = 0;
-                userClicks[i][j] = 0;
-            }
-        }
+        Arrays.fill(initialSteps, 0);
+        Arrays.fill(currentSteps, 0);
+        userClicks8 = new byte[rows * cols];
+        userClicks16 = null;
+        userClicks32 = null;
     }
 
     /**
@@ -54,10 +67,43 @@ public class GameTrackingInfo {
      * storing the current game state as the new reference.
      */
     public void saveCurrentAsInitial() {
-        for (int r = 0; r < rows; r++)
-            for (int c = 0; c < cols; c++) {
-                initialSteps[r][c] = currentSteps[r][c];
-            }
+        System.arraycopy(currentSteps, 0, initialSteps, 0, currentSteps.length);
+    }
+
+    /**
+     * Sets the number of distinct orientations of the tile at a position (see Orientations.count),
+     * so that the goal check ignores full turns of symmetric tiles.
+     * Until set, a tile is treated as having four orientations.
+     *
+     * @param pos the position of the node
+     * @param count the number of orientations: 1, 2 or 4
+     */
+    public void setOrientationCount(Position pos, int count) {
+        setStep(orientationMasks, cellIndex(pos), count - 1);
+    }
+
+    /**
+     * Checks whether every node is in its goal orientation, i.e. every step is a multiple
+     * of the number of orientations of its tile.
+     * Compares whole words, 32 nodes at a time.
+     *
+     * @return true if no node needs any rotation
+     */
+    public boolean isInGoalOrientation() {
+        for (int i = 0; i < currentSteps.length; i++) {
+            if ((currentSteps[i] & orientationMasks[i]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the current steps equal the initial steps after shuffling.
+     * Compares whole words, 32 nodes at a time.
+     *
+     * @return true if the board is in its initial orientation
+     */
+    public boolean isInInitialOrientation() {
+        return Arrays.equals(initialSteps, currentSteps);
     }
 
     /**
@@ -68,18 +114,12 @@ public class GameTrackingInfo {
      * @param userClick true if the rotation was caused by the user
      */
     public void rotate(Position pos, boolean userClick) {
-        int r = pos.row() - 1;
-        int c = pos.col() - 1;
+        int cell = cellIndex(pos);
 
-        if (currentSteps[r][c] == 0) {
-            currentSteps[r][c] = 3;
-        }
-        else {
-            currentSteps[r][c]--;
-        }
+        setStep(currentSteps, cell, (getStep(currentSteps, cell) + 3) & 3);
 
         if (userClick) {
-            userClicks[r][c]++;
+            setClicks(cell, getClicks(cell) + 1);
             totalClicks++;
         }
     }
@@ -90,17 +130,11 @@ public class GameTrackingInfo {
      * @param pos the position of the node to undo
      */
     public void rotateUndo(Position pos) {
-        int r = pos.row() - 1;
-        int c = pos.col() - 1;
+        int cell = cellIndex(pos);
 
-        if (currentSteps[r][c] == 3) {
-            currentSteps[r][c] = 0;
-        }
-        else {
-            currentSteps[r][c]++;
-        }
+        setStep(currentSteps, cell, (getStep(currentSteps, cell) + 1) & 3);
 
-        userClicks[r][c]--;
+        setClicks(cell, getClicks(cell) - 1);
         totalClicks--;
     }
 
@@ -111,7 +145,7 @@ public class GameTrackingInfo {
      * @return number of steps from the current state to the goal state
      */
     public int getCurrentStep(Position pos) {
-        return currentSteps[pos.row() - 1][pos.col() - 1];
+        return getStep(currentSteps, cellIndex(pos));
     }
 
     /**
@@ -121,7 +155,7 @@ public class GameTrackingInfo {
      * @return the number of steps after initial shuffle
      */
     public int getInitialStep(Position pos) {
-        return initialSteps[pos.row() - 1][pos.col() - 1];
+        return getStep(initialSteps, cellIndex(pos));
     }
 
     /**
@@ -131,7 +165,7 @@ public class GameTrackingInfo {
      * @return number of user interactions
      */
     public int getUserClicks(Position pos) {
-        return userClicks[pos.row() - 1][pos.col() - 1];
+        return getClicks(cellIndex(pos));
     }
 
     /**
@@ -142,4 +176,82 @@ public class GameTrackingInfo {
     public  int getTotalClicks() {
         return totalClicks;
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts a 1-based position into a row-major cell index.
+     *
+     * @param pos the position of the node
+     * @return the cell index
+     */
+    private int cellIndex(Position pos) {
+        return (pos.row() - 1) * cols + pos.col() - 1;
+    }
+
+    /**
+     * Reads a 2-bit step value of a cell.
+     *
+     * @param steps the packed step array
+     * @param cell the cell index
+     * @return the step value (0–3)
+     */
+    private static int getStep(long[] steps, int cell) {
+        return (int) (steps[cell / CELLS_PER_WORD] >>> ((cell % CELLS_PER_WORD) * 2)) & 3;
+    }
+
+    /**
+     * Writes a 2-bit step value of a cell.
+     *
+     * @param steps the packed step array
+     * @param cell the cell index
+     * @param value the step value (0–3)
+     */
+    private static void setStep(long[] steps, int cell, int value) {
+        int shift = (cell % CELLS_PER_WORD) * 2;
+        int word = cell / CELLS_PER_WORD;
+        steps[word] = (steps[word] & ~(3L << shift)) | ((long) value << shift);
+    }
+
+    /**
+     * Reads the click counter of a cell from the array currently in use.
+     *
+     * @param cell the cell index
+     * @return the number of clicks
+     */
+    private int getClicks(int cell) {
+        if (userClicks8 != null) return userClicks8[cell] & 0xFF;
+        if (userClicks16 != null) return userClicks16[cell];
+        return userClicks32[cell];
+    }
+
+    /**
+     * Writes the click counter of a cell, widening the counters when the value does not fit.
+     *
+     * @param cell the cell index
+     * @param value the number of clicks
+     */
+    private void setClicks(int cell, int value) {
+        if (userClicks8 != null) {
+            if (value >= 0 && value <= 0xFF) {
+                userClicks8[cell] = (byte) value;
+                return;
+            }
+            userClicks16 = new char[userClicks8.length];
+            for (int i = 0; i < userClicks8.length; i++) {
+                userClicks16[i] = (char) (userClicks8[i] & 0xFF);
+            }
+            userClicks8 = null;
+        }
+        if (userClicks16 != null) {
+            if (value >= 0 && value <= Character.MAX_VALUE) {
+                userClicks16[cell] = (char) value;
+                return;
+            }
+            userClicks32 = new int[userClicks16.length];
+            for (int i = 0; i < userClicks16.length; i++) {
+                userClicks32[i] = userClicks16[i];
+            }
+            userClicks16 = null;
+        }
+        userClicks32[cell] = value;
+    }
+}
@@ -33,6 +33,46 @@ public class GenerateGameService {
         return newGame;
     }
 
+    /**
+     * Generates a synthetic game board of arbitrary size.
+     * The layout is a comb: a wire bus along the first row feeding one vertical wire
+     * per column, each ending with a bulb in the last row. The solved board lights every bulb.
+     * Used for benchmarks and load testing on boards larger than the predefined layouts.
+     *
+     * @param rows the number of rows (at least 2)
+     * @param cols the number of columns (at least 2)
+     * @return a newly created game instance of the given size
+     * @throws IllegalArgumentException if the board is smaller than 2×2
+     */
+    public static Game generateBySize(int rows, int cols) {
+        if (rows < 2 || cols < 2) {
+            throw new IllegalArgumentException("Board must be at least 2x2: " + rows + "x" + cols);
+        }
+
+        Game game = Game.create(rows, cols);
+
+        // Bus along the first row.
+        for (int c = 2; c < cols; c++) {
+            game.createLinkNode(new Position(1, c), Side.EAST, Side.WEST, Side.SOUTH);
+        }
+        game.createLinkNode(new Position(1, cols), Side.WEST, Side.SOUTH);
+
+        // Vertical wires ending with bulbs.
+        for (int c = 1; c <= cols; c++) {
+            for (int r = 2; r < rows; r++) {
+                game.createLinkNode(new Position(r, c), Side.NORTH, Side.SOUTH);
+            }
+            game.createBulbNode(new Position(rows, c), Side.NORTH);
+        }
+
+        // Power is placed last, so the circuit is not traced while the board is being built.
+        game.createPowerNode(new Position(1, 1), Side.EAST, Side.SOUTH);
+
+        game.updateGame();
+
+        return game;
+    }
+
     /**
      * Creates and returns a predefined 5×5 game board for the Easy difficulty.
      *
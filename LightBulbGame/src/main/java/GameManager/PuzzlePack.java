@@ -0,0 +1,172 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Read access to a puzzle pack file.
+ *              The file is memory-mapped, so opening a pack does not parse it
+ *              and any puzzle is loaded by its index in constant time.
+ *
+ *              Header: "LBPK", u16 version, u16 reserved, i32 puzzle count, i64 index offset
+ *              Record: u16 rows, u16 cols, u8 cell per cell (row by row)
+ *              Index:  i64 record offset per puzzle
+ *
+ *              Cell byte: connector mask in bits 0–3 (north, east, south, west),
+ *              node type ordinal in bits 4–5. All values are big-endian.
+ *              The same cell encoding is used by BoardSnapshot and BoardDiffStream;
+ *              the frames of the latter also set LIGHT_BIT on lit cells.
+ */
+
+package GameManager;
+
+import GameLogic.Common.GameNode;
+import GameLogic.Common.GameNodeType;
+import GameLogic.Common.Position;
+import GameLogic.Common.Side;
+import GameLogic.Game.Game;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PuzzlePack {
+    public static final int MAGIC = 0x4C42504B; // "LBPK"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 20;
+    public static final int TYPE_SHIFT = 4;
+    public static final int LIGHT_BIT = 1 << 6;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final long indexOffset;
+
+    /**
+     * Creates a reader over a mapped pack file.
+     *
+     * @param buffer the mapped file
+     * @throws IOException if the file is not a supported puzzle pack
+     */
+    private PuzzlePack(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a puzzle pack");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported puzzle pack version: " + buffer.getShort(4));
+        }
+        this.count = buffer.getInt(8);
+        this.indexOffset = buffer.getLong(12);
+        if (count < 0 || indexOffset < HEADER_SIZE || indexOffset + (long) count * Long.BYTES > buffer.capacity()) {
+            throw new IOException("Corrupted puzzle pack index");
+        }
+    }
+
+    /**
+     * Opens a puzzle pack by mapping the file into memory.
+     * Packs larger than 2 GB are not supported.
+     *
+     * @param file the pack file
+     * @return the opened pack
+     * @throws IOException if the file cannot be read or is not a puzzle pack
+     */
+    public static PuzzlePack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new PuzzlePack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the number of puzzles in the pack.
+     *
+     * @return the puzzle count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Loads the puzzle with the given index as a new game in its solved orientation.
+     *
+     * @param index the 0-based puzzle index
+     * @return the created game
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IOException if the record of the puzzle is corrupted
+     */
+    public Game load(int index) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Puzzle " + index + " of " + count);
+        }
+
+        long recordOffset = buffer.getLong((int) indexOffset + index * Long.BYTES);
+        if (recordOffset < HEADER_SIZE || recordOffset + 4 > buffer.capacity()) {
+            throw new IOException("Corrupted puzzle " + (index + 1) + ": record out of the file");
+        }
+        int offset = (int) recordOffset;
+        int rows = Short.toUnsignedInt(buffer.getShort(offset));
+        int cols = Short.toUnsignedInt(buffer.getShort(offset + 2));
+        int cells = offset + 4;
+        if (rows == 0 || cols == 0 || (long) cells + (long) rows * cols > buffer.capacity()) {
+            throw new IOException("Corrupted puzzle " + (index + 1) + ": invalid size " + rows + "x" + cols);
+        }
+
+        Game game = Game.create(rows, cols);
+        List<Position> powers = new ArrayList<>();
+        List<Integer> powerMasks = new ArrayList<>();
+        for (int r = 1; r <= rows; r++) {
+            for (int c = 1; c <= cols; c++) {
+                int cell = buffer.get(cells++);
+                int mask = cell & 0x0F;
+                GameNodeType type = GameNodeType.values()[(cell >> TYPE_SHIFT) & 0x03];
+                Position pos = new Position(r, c);
+                if (type == GameNodeType.BULB && Integer.bitCount(mask) != 1) {
+                    throw new IOException("Corrupted puzzle " + (index + 1) + ": bulb at " + r + ", " + c
+                            + " must have exactly one connector, has mask " + mask);
+                }
+                switch (type) {
+                    case LINK -> game.createLinkNode(pos, sidesOf(mask));
+                    case BULB -> game.createBulbNode(pos, sidesOf(mask)[0]);
+                    case POWER -> {
+                        powers.add(pos);
+                        powerMasks.add(mask);
+                    }
+                    default -> { }
+                }
+            }
+        }
+
+        // Power is placed last, so the circuit is not traced while the board is being built.
+        for (int i = 0; i < powers.size(); i++) {
+            game.createPowerNode(powers.get(i), sidesOf(powerMasks.get(i)));
+        }
+
+        game.updateGame();
+        return game;
+    }
+
+    /**
+     * Encodes a node into a pack cell byte.
+     *
+     * @param node the node to encode
+     * @return the cell byte
+     */
+    public static byte encodeCell(GameNode node) {
+        return (byte) (node.connectorMask() | node.Type.ordinal() << TYPE_SHIFT);
+    }
+
+    /**
+     * Converts a connector mask into the list of sides.
+     *
+     * @param mask the connector mask
+     * @return the connected sides
+     */
+    private static Side[] sidesOf(int mask) {
+        List<Side> sides = new ArrayList<>(4);
+        if ((mask & 1) != 0) sides.add(Side.NORTH);
+        if ((mask & 2) != 0) sides.add(Side.EAST);
+        if ((mask & 4) != 0) sides.add(Side.SOUTH);
+        if ((mask & 8) != 0) sides.add(Side.WEST);
+        return sides.toArray(new Side[0]);
+    }
+}
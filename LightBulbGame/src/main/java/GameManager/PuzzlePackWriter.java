@@ -0,0 +1,129 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Writes puzzle packs (see PuzzlePack for the format).
+ *              Puzzles are appended one by one; the index is written when the pack is closed.
+ */
+
+package GameManager;
+
+import GameLogic.Common.Position;
+import GameLogic.Game.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class PuzzlePackWriter implements AutoCloseable {
+    private final FileChannel channel;
+    private long[] offsets = new long[64];
+    private int count = 0;
+    private long position = PuzzlePack.HEADER_SIZE;
+
+    /**
+     * Creates a new pack file, replacing an existing one.
+     *
+     * @param file the pack file
+     * @throws IOException if the file cannot be created
+     */
+    public PuzzlePackWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends a puzzle in the current orientation of its nodes,
+     * which should be the solved one.
+     *
+     * @param game the puzzle to store
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the board is larger than 65535 in either direction
+     */
+    public void add(Game game) throws IOException {
+        int rows = game.rows();
+        int cols = game.cols();
+        if (rows > 0xFFFF || cols > 0xFFFF) {
+            throw new IllegalArgumentException("Board too large: " + rows + "x" + cols);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(4 + rows * cols);
+        record.putShort((short) rows);
+        record.putShort((short) cols);
+        for (int r = 1; r <= rows; r++) {
+            for (int c = 1; c <= cols; c++) {
+                record.put(PuzzlePack.encodeCell(game.node(new Position(r, c))));
+            }
+        }
+        record.flip();
+
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count++] = position;
+        position += writeFully(record, position);
+    }
+
+    /**
+     * Writes the index and the header and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            ByteBuffer index = ByteBuffer.allocate(count * Long.BYTES);
+            index.asLongBuffer().put(offsets, 0, count);
+            writeFully(index, position);
+
+            ByteBuffer header = ByteBuffer.allocate(PuzzlePack.HEADER_SIZE);
+            header.putInt(PuzzlePack.MAGIC);
+            header.putShort(PuzzlePack.VERSION);
+            header.putShort((short) 0);
+            header.putInt(count);
+            header.putLong(position);
+            header.flip();
+            writeFully(header, 0);
+        }
+    }
+
+    /**
+     * Writes the whole buffer at the given file position.
+     *
+     * @param buffer the data to write
+     * @param at the file position
+     * @return the number of written bytes
+     * @throws IOException if writing fails
+     */
+    private int writeFully(ByteBuffer buffer, long at) throws IOException {
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+        return length;
+    }
+
+    /**
+     * Exports the predefined boards of all difficulties into a pack.
+     * Usage: PuzzlePackWriter FILE
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: PuzzlePackWriter FILE");
+            System.exit(1);
+        }
+
+        try (PuzzlePackWriter writer = new PuzzlePackWriter(Paths.get(args[0]))) {
+            for (int difficulty = 1; difficulty <= 3; difficulty++) {
+                writer.add(GenerateGameService.generateByDifficulty(difficulty));
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Automatic playback of a loaded game along its redo path at a given number of moves per second.
+ *              The caller reports the elapsed time (e.g. once per rendered frame) and the player
+ *              applies all moves due in that time as one jump in the undo tree, so a frame costs
+ *              the same whether it covers one move or thousands; intermediate states are never applied.
+ *              The cells changed by a step are reported, so only they need to be redrawn.
+ */
+
+package GameManager;
+
+import java.util.function.IntConsumer;
+
+public class ReplayPlayer {
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final GameManager manager;
+    private double movesPerSecond;
+    // Fraction of a move carried over to the next step.
+    private double pendingMoves = 0;
+
+    /**
+     * Constructs a player of a game in replay mode.
+     *
+     * @param manager the game manager holding the loaded game
+     * @param movesPerSecond the initial playback speed
+     */
+    public ReplayPlayer(GameManager manager, double movesPerSecond) {
+        this.manager = manager;
+        setSpeed(movesPerSecond);
+    }
+
+    /**
+     * Sets the playback speed.
+     *
+     * @param movesPerSecond the number of moves played per second, must be positive
+     * @throws IllegalArgumentException if the speed is not positive
+     */
+    public void setSpeed(double movesPerSecond) {
+        if (!(movesPerSecond > 0)) {
+            throw new IllegalArgumentException("Speed must be positive: " + movesPerSecond);
+        }
+        this.movesPerSecond = movesPerSecond;
+    }
+
+    /**
+     * Returns the playback speed.
+     *
+     * @return the number of moves played per second
+     */
+    public double getSpeed() {
+        return movesPerSecond;
+    }
+
+    /**
+     * Checks whether the end of the redo path has been reached.
+     *
+     * @return true if there is no move left to play
+     */
+    public boolean isFinished() {
+        return !manager.canRedo();
+    }
+
+    /**
+     * Moves back to the state before the first move; the redo path still leads to the current step.
+     */
+    public void rewind() {
+        manager.jumpToNode(UndoTree.ROOT);
+        pendingMoves = 0;
+    }
+
+    /**
+     * Forgets the fraction of a move accumulated so far, e.g. after pausing.
+     */
+    public void reset() {
+        pendingMoves = 0;
+    }
+
+    /**
+     * Plays all moves due in the elapsed time.
+     *
+     * @param elapsedNanos the time since the previous step
+     * @param changedCells receives the row-major index of every cell whose connectors differ after the step
+     * @return the number of moves played
+     */
+    public int advance(long elapsedNanos, IntConsumer changedCells) {
+        pendingMoves += elapsedNanos * movesPerSecond / NANOS_PER_SECOND;
+        int due = (int) Math.min(pendingMoves, Integer.MAX_VALUE);
+        if (due == 0) return 0;
+        pendingMoves -= due;
+
+        UndoTree history = manager.getHistory();
+        int target = manager.getCurrentNode();
+        int played = 0;
+        while (played < due && history.redoChild(target) != UndoTree.NONE) {
+            target = history.redoChild(target);
+            played++;
+        }
+        if (played < due) {
+            pendingMoves = 0;
+        }
+        if (played == 0) return 0;
+
+        BoardSnapshot before = manager.getCurrentSnapshot();
+        manager.jumpToNode(target);
+        before.forEachDifference(manager.getCurrentSnapshot(), changedCells);
+        return played;
+    }
+}
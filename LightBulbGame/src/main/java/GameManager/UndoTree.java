@@ -0,0 +1,137 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description History of a game as a tree of steps instead of a linear list.
+ *              Node 0 is the state before the first user move; every user move creates
+ *              a child of the current node, so moving from a past step starts a new branch
+ *              and keeps the old one. Each node remembers the board snapshot after its move
+ *              and the child that redo follows.
+ */
+
+package GameManager;
+
+import java.util.Arrays;
+
+public class UndoTree {
+    public static final int ROOT = 0;
+    public static final int NONE = -1;
+
+    private int[] parent = new int[64];
+    private int[] depth = new int[64];
+    private int[] redoChild = new int[64];
+    private BoardSnapshot[] snapshots = new BoardSnapshot[64];
+    private int size = 1;
+
+    /**
+     * Creates a tree containing only the root.
+     *
+     * @param initialSnapshot the board before the first user move
+     */
+    public UndoTree(BoardSnapshot initialSnapshot) {
+        parent[ROOT] = NONE;
+        redoChild[ROOT] = NONE;
+        snapshots[ROOT] = initialSnapshot;
+    }
+
+    /**
+     * Adds a step as a child of the given node and makes it the node's redo target.
+     *
+     * @param parentNode the node the move was made from
+     * @param snapshot the board after the move
+     * @return the id of the new node
+     */
+    public int addChild(int parentNode, BoardSnapshot snapshot) {
+        if (size == parent.length) {
+            int capacity = size * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            redoChild = Arrays.copyOf(redoChild, capacity);
+            snapshots = Arrays.copyOf(snapshots, capacity);
+        }
+        int node = size++;
+        parent[node] = parentNode;
+        depth[node] = depth[parentNode] + 1;
+        redoChild[node] = NONE;
+        snapshots[node] = snapshot;
+        redoChild[parentNode] = node;
+        return node;
+    }
+
+    /**
+     * Returns the number of nodes including the root.
+     *
+     * @return the node count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the parent of a node.
+     *
+     * @param node the node id
+     * @return the parent id, NONE for the root
+     */
+    public int parent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * Returns the number of moves from the root to a node.
+     *
+     * @param node the node id
+     * @return the depth of the node
+     */
+    public int depth(int node) {
+        return depth[node];
+    }
+
+    /**
+     * Returns the child that redo moves to.
+     *
+     * @param node the node id
+     * @return the redo child, NONE if the node has no children
+     */
+    public int redoChild(int node) {
+        return redoChild[node];
+    }
+
+    /**
+     * Returns the board snapshot after the node's move.
+     *
+     * @param node the node id
+     * @return the board snapshot
+     */
+    public BoardSnapshot snapshot(int node) {
+        return snapshots[node];
+    }
+
+    /**
+     * Returns the deepest common ancestor of two nodes in O(depth) time.
+     *
+     * @param a the first node
+     * @param b the second node
+     * @return the common ancestor
+     */
+    public int commonAncestor(int a, int b) {
+        while (depth[a] > depth[b]) a = parent[a];
+        while (depth[b] > depth[a]) b = parent[b];
+        while (a != b) {
+            a = parent[a];
+            b = parent[b];
+        }
+        return a;
+    }
+
+    /**
+     * Makes redo from the given ancestor follow the branch leading to the node.
+     *
+     * @param ancestor an ancestor of the node
+     * @param node the node whose branch is selected
+     */
+    public void selectBranch(int ancestor, int node) {
+        for (; node != ancestor; node = parent[node]) {
+            redoChild[parent[node]] = node;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description A monotonically increasing count of events, cheap to update from any thread.
+ */
+
+package GameMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds an amount to the counter.
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Returns the current value of the counter.
+     *
+     * @return the sum of all additions
+     */
+    public long value() {
+        return value.sum();
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description JDK Flight Recorder events of the game engine.
+ *              Recorded when the JVM runs with a recording, e.g. -XX:StartFlightRecording=filename=game.jfr,
+ *              and shown in JDK Mission Control under "Light Bulb Game".
+ *              Without a recording an event costs a check of a flag.
+ */
+
+package GameMetrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+public final class EngineEvents {
+    private EngineEvents() {
+    }
+
+    @Name("lightbulbgame.Rotate")
+    @Label("Rotate")
+    @Category({"Light Bulb Game", "Engine"})
+    @Description("Rotation of a node, including its logging")
+    public static final class Rotate extends Event {
+        @Label("Row")
+        public int row;
+
+        @Label("Column")
+        public int col;
+
+        @Label("Connector Mask")
+        @Description("Connectors after the rotation, north 1, east 2, south 4, west 8")
+        public int mask;
+
+        @Label("User Click")
+        public boolean userClick;
+    }
+
+    @Name("lightbulbgame.Propagate")
+    @Label("Propagate")
+    @Category({"Light Bulb Game", "Engine"})
+    @Description("Propagation of the power over the board")
+    public static final class Propagate extends Event {
+        @Label("Engine")
+        public String engine;
+
+        @Label("Cells")
+        public int cells;
+    }
+
+    @Name("lightbulbgame.LogWrite")
+    @Label("Log Write")
+    @Category({"Light Bulb Game", "Log"})
+    @Description("Appending a record to the game log")
+    public static final class LogWrite extends Event {
+        @Label("Record")
+        public String record;
+    }
+
+    @Name("lightbulbgame.LogLoad")
+    @Label("Log Load")
+    @Category({"Light Bulb Game", "Log"})
+    @Description("Loading a game from its log")
+    public static final class LogLoad extends Event {
+        @Label("Turns")
+        @Description("User turns recorded in the log")
+        public int turns;
+    }
+
+    @Name("lightbulbgame.TileRepaint")
+    @Label("Tile Repaint")
+    @Category({"Light Bulb Game", "Render"})
+    @Description("Redrawing a tile of the game board")
+    public static final class TileRepaint extends Event {
+        @Label("Row")
+        public int row;
+
+        @Label("Column")
+        public int col;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Process-wide registry of named counters and histograms.
+ *              Instrumented code looks its metrics up once, into a static field, and updates them
+ *              on every operation; readers such as the metrics overlay of the game view
+ *              take the current values whenever they need them.
+ *
+ *              Durations of the engine are also recorded as JDK Flight Recorder events,
+ *              see EngineEvents, which give the individual operations on a timeline.
+ */
+
+package GameMetrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public final class Metrics {
+    /** Rotation of a node by GameManager, including its logging. */
+    public static final String ROTATE = "engine.rotate";
+    /** Propagation of the power by Game.updateGame. */
+    public static final String PROPAGATE = "engine.propagate";
+    /** Writing a record to the game log. */
+    public static final String LOG_WRITE = "log.write";
+    /** Loading a game from its log. */
+    public static final String LOG_LOAD = "log.load";
+    /** Redrawing a tile of the game board. */
+    public static final String TILE_REPAINT = "render.tile";
+    /** Characters written to game logs. */
+    public static final String LOG_CHARS = "log.chars";
+
+    private static final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter of a name, creating it on the first call.
+     *
+     * @param name the name of the counter
+     * @return the counter
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Returns the histogram of a name, creating it on the first call.
+     *
+     * @param name the name of the histogram
+     * @return the histogram
+     */
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, Histogram::new);
+    }
+
+    /**
+     * Returns all counters, ordered by name.
+     *
+     * @return an unmodifiable view of the counters
+     */
+    public static Collection<Counter> counters() {
+        return Collections.unmodifiableCollection(counters.values());
+    }
+
+    /**
+     * Returns all histograms, ordered by name.
+     *
+     * @return an unmodifiable view of the histograms
+     */
+    public static Collection<Histogram> histograms() {
+        return Collections.unmodifiableCollection(histograms.values());
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Serves a single client connection of the game server.
+ *              Reads commands, executes them on the addressed session and writes the responses.
+ *              The sessions created by the connection are closed when it ends.
+ */
+
+package GameServer;
+
+import GameLogic.Common.Position;
+import GameManager.GameManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ClientConnection implements Runnable {
+    private final GameServer server;
+    private final Socket socket;
+    // Sessions created by this connection and not closed yet
+    private final Set<Integer> ownedSessions = new HashSet<>();
+    // Sessions this connection requested frames of
+    private final Set<Integer> subscribedSessions = new HashSet<>();
+
+    /**
+     * Constructs a handler for an accepted connection.
+     *
+     * @param server the server hosting the sessions
+     * @param socket the accepted client socket
+     */
+    public ClientConnection(GameServer server, Socket socket) {
+        this.server = server;
+        this.socket = socket;
+    }
+
+    /**
+     * Processes commands until the client disconnects, then closes the sessions it created.
+     */
+    @Override
+    public void run() {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setTcpNoDelay(true);
+
+            while (true) {
+                int command = in.read();
+                if (command < 0) {
+                    break;
+                }
+                int sessionId = in.readInt();
+                handle((byte) command, sessionId, in, out);
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // Client disconnected in the middle of a command.
+        } catch (IOException e) {
+            // The socket is closed under a blocked read when the server shuts down.
+            if (!server.isClosed()) {
+                System.err.println(e.getMessage());
+            }
+        } finally {
+            server.removeConnection(socket);
+            for (int sessionId : subscribedSessions) {
+                unsubscribe(sessionId);
+            }
+            for (int sessionId : ownedSessions) {
+                server.closeSession(sessionId);
+            }
+            ownedSessions.clear();
+        }
+    }
+
+    /**
+     * Executes a single command and writes its response.
+     *
+     * @param command the command code
+     * @param sessionId the addressed session
+     * @param in the request stream, positioned at the command payload
+     * @param out the response stream
+     * @throws IOException if reading the payload or writing the response fails
+     */
+    private void handle(byte command, int sessionId, DataInputStream in, DataOutputStream out) throws IOException {
+        if (command == Protocol.NEW_GAME) {
+            int difficulty = in.readUnsignedByte();
+            if (difficulty < 1 || difficulty > 3) {
+                writeError(out, "Unknown difficulty: " + difficulty);
+                return;
+            }
+            GameSession session = server.createSession(difficulty);
+            ownedSessions.add(session.getId());
+            out.writeByte(Protocol.STATUS_OK);
+            out.writeInt(session.getId());
+            return;
+        }
+
+        // Payload is read before the session lookup, so that an error keeps the stream in sync.
+        int row = 0;
+        int col = 0;
+        if (command == Protocol.ROTATE) {
+            row = in.readUnsignedShort();
+            col = in.readUnsignedShort();
+        }
+
+        GameSession session = server.getSession(sessionId);
+        if (session == null) {
+            writeError(out, "Unknown session: " + sessionId);
+            return;
+        }
+
+        session.getLock().lock();
+        try {
+            // The session may have been closed while waiting for its lock
+            if (session.isClosed()) {
+                writeError(out, "Unknown session: " + sessionId);
+                return;
+            }
+
+            GameManager manager = session.getManager();
+            switch (command) {
+                case Protocol.ROTATE -> {
+                    boolean solved = manager.rotateNodeAndCheckResult(new Position(row, col));
+                    out.writeByte(Protocol.STATUS_OK);
+                    out.writeBoolean(solved);
+                }
+                case Protocol.UNDO, Protocol.REDO -> {
+                    if (command == Protocol.UNDO) {
+                        manager.undo();
+                    }
+                    else {
+                        manager.redo();
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                    out.writeBoolean(manager.canUndo());
+                    out.writeBoolean(manager.canRedo());
+                }
+                case Protocol.HINT -> {
+                    out.writeByte(Protocol.STATUS_OK);
+                    writeBoard(out, manager, session.encodeHint());
+                }
+                case Protocol.SNAPSHOT -> {
+                    subscribedSessions.add(sessionId);
+                    writeFrame(out, session.getStream(this).keyframe());
+                }
+                case Protocol.DIFF -> {
+                    subscribedSessions.add(sessionId);
+                    writeFrame(out, session.getStream(this).nextFrame());
+                }
+                case Protocol.CLOSE -> {
+                    if (!ownedSessions.contains(sessionId)) {
+                        writeError(out, "Session not owned by this connection: " + sessionId);
+                        return;
+                    }
+                    server.closeSession(sessionId);
+                    ownedSessions.remove(sessionId);
+                    subscribedSessions.remove(sessionId);
+                    out.writeByte(Protocol.STATUS_OK);
+                }
+                default -> writeError(out, "Unknown command: " + command);
+            }
+        } finally {
+            session.getLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the frame stream of this connection in a session that is still open.
+     *
+     * @param sessionId the session id
+     */
+    private void unsubscribe(int sessionId) {
+        GameSession session = server.getSession(sessionId);
+        if (session == null) {
+            return;
+        }
+        session.getLock().lock();
+        try {
+            session.unsubscribe(this);
+        } finally {
+            session.getLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the board size followed by one byte per cell.
+     *
+     * @param out the response stream
+     * @param manager the game manager of the session
+     * @param cells the encoded cells
+     * @throws IOException if writing fails
+     */
+    private void writeBoard(DataOutputStream out, GameManager manager, byte[] cells) throws IOException {
+        out.writeShort(manager.game.rows());
+        out.writeShort(manager.game.cols());
+        out.write(cells);
+    }
+
+    /**
+     * Writes a length-prefixed board frame.
+     *
+     * @param out the response stream
+     * @param frame the encoded frame
+     * @throws IOException if writing fails
+     */
+    private void writeFrame(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeByte(Protocol.STATUS_OK);
+        out.writeInt(frame.length);
+        out.write(frame);
+    }
+
+    /**
+     * Writes an error response.
+     *
+     * @param out the response stream
+     * @param message the error message
+     * @throws IOException if writing fails
+     */
+    private void writeError(DataOutputStream out, String message) throws IOException {
+        out.writeByte(Protocol.STATUS_ERROR);
+        out.writeUTF(message);
+    }
+}
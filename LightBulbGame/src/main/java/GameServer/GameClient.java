@@ -0,0 +1,212 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Thin client of the game server.
+ *              Sends protocol commands over a single connection and decodes the responses.
+ */
+
+package GameServer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+public class GameClient implements AutoCloseable {
+    /**
+     * A board of one byte per cell, row by row.
+     */
+    public record Board(int rows, int cols, byte[] cells) {
+    }
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    /**
+     * Connects to a server on the loopback interface.
+     *
+     * @param port the server port
+     * @throws IOException if the connection fails
+     */
+    public GameClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Creates a new game on the server.
+     *
+     * @param difficulty the difficulty level (1 = Easy, 2 = Medium, 3 = Hard)
+     * @return the id of the created session
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public int newGame(int difficulty) throws IOException {
+        send(Protocol.NEW_GAME, 0);
+        out.writeByte(difficulty);
+        receive();
+        return in.readInt();
+    }
+
+    /**
+     * Rotates a node of the session's game.
+     *
+     * @param sessionId the session id
+     * @param row the row of the node
+     * @param col the column of the node
+     * @return true if the move solved the game
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public boolean rotate(int sessionId, int row, int col) throws IOException {
+        send(Protocol.ROTATE, sessionId);
+        out.writeShort(row);
+        out.writeShort(col);
+        receive();
+        return in.readBoolean();
+    }
+
+    /**
+     * Undoes the last move of the session.
+     *
+     * @param sessionId the session id
+     * @return true if another undo is possible
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public boolean undo(int sessionId) throws IOException {
+        send(Protocol.UNDO, sessionId);
+        receive();
+        boolean canUndo = in.readBoolean();
+        in.readBoolean();
+        return canUndo;
+    }
+
+    /**
+     * Redoes the next move of the session.
+     *
+     * @param sessionId the session id
+     * @return true if another redo is possible
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public boolean redo(int sessionId) throws IOException {
+        send(Protocol.REDO, sessionId);
+        receive();
+        in.readBoolean();
+        return in.readBoolean();
+    }
+
+    /**
+     * Returns the remaining rotations of every cell.
+     *
+     * @param sessionId the session id
+     * @return the hint board
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public Board hint(int sessionId) throws IOException {
+        send(Protocol.HINT, sessionId);
+        receive();
+        return readBoard();
+    }
+
+    /**
+     * Returns a keyframe with the full board of the session.
+     *
+     * @param sessionId the session id
+     * @return the encoded keyframe, to be applied with BoardFrameDecoder
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public byte[] snapshot(int sessionId) throws IOException {
+        send(Protocol.SNAPSHOT, sessionId);
+        receive();
+        return readFrame();
+    }
+
+    /**
+     * Returns the next frame of the session: the cells changed since the previous frame,
+     * or periodically a keyframe.
+     *
+     * @param sessionId the session id
+     * @return the encoded frame, to be applied with BoardFrameDecoder
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public byte[] diff(int sessionId) throws IOException {
+        send(Protocol.DIFF, sessionId);
+        receive();
+        return readFrame();
+    }
+
+    /**
+     * Closes the session on the server.
+     *
+     * @param sessionId the session id
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    public void closeSession(int sessionId) throws IOException {
+        send(Protocol.CLOSE, sessionId);
+        receive();
+    }
+
+    /**
+     * Closes the connection.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Writes the request header.
+     *
+     * @param command the command code
+     * @param sessionId the addressed session
+     * @throws IOException if writing fails
+     */
+    private void send(byte command, int sessionId) throws IOException {
+        out.writeByte(command);
+        out.writeInt(sessionId);
+    }
+
+    /**
+     * Flushes the request and reads the response status.
+     *
+     * @throws IOException if the communication fails or the server reports an error
+     */
+    private void receive() throws IOException {
+        out.flush();
+        if (in.readByte() != Protocol.STATUS_OK) {
+            throw new IOException(in.readUTF());
+        }
+    }
+
+    /**
+     * Reads a length-prefixed frame.
+     *
+     * @return the received frame
+     * @throws IOException if reading fails
+     */
+    private byte[] readFrame() throws IOException {
+        byte[] frame = new byte[in.readInt()];
+        in.readFully(frame);
+        return frame;
+    }
+
+    /**
+     * Reads a board size followed by one byte per cell.
+     *
+     * @return the received board
+     * @throws IOException if reading fails
+     */
+    private Board readBoard() throws IOException {
+        int rows = in.readUnsignedShort();
+        int cols = in.readUnsignedShort();
+        byte[] cells = new byte[rows * cols];
+        in.readFully(cells);
+        return new Board(rows, cols, cells);
+    }
+}
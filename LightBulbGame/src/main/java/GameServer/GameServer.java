@@ -0,0 +1,195 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Hosts many concurrent game sessions in one process.
+ *              Listens on a loopback socket and serves every connection
+ *              on its own virtual thread using the binary protocol described in Protocol.
+ */
+
+package GameServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final Path logDir;
+    private final Map<Integer, GameSession> sessions = new ConcurrentHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextSessionId = new AtomicInteger(1);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Opens the server socket on the loopback interface.
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @param logDir the directory for session log files
+     * @throws IOException if the socket cannot be opened or the directory created
+     */
+    public GameServer(int port, Path logDir) throws IOException {
+        this.logDir = Files.createDirectories(logDir);
+        this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                if (serverSocket.isClosed()) {
+                    // Accepted while closing, after the open connections were closed
+                    socket.close();
+                    break;
+                }
+                executor.submit(new ClientConnection(this, socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new session with a shuffled game.
+     *
+     * @param difficulty the difficulty level (1 = Easy, 2 = Medium, 3 = Hard)
+     * @return the created session
+     */
+    public GameSession createSession(int difficulty) {
+        int id = nextSessionId.getAndIncrement();
+        File logFile = logDir.resolve("session-" + id + ".log").toFile();
+        GameSession session = new GameSession(id, difficulty, logFile);
+        sessions.put(id, session);
+        return session;
+    }
+
+    /**
+     * Returns the session with the given id.
+     *
+     * @param id the session id
+     * @return the session, or null if it does not exist
+     */
+    public GameSession getSession(int id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Removes the session with the given id and closes it under its lock. Its log file is kept.
+     *
+     * @param id the session id
+     */
+    public void closeSession(int id) {
+        GameSession session = sessions.remove(id);
+        if (session != null) {
+            session.getLock().lock();
+            try {
+                session.close();
+            } finally {
+                session.getLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Forgets a connection that ended.
+     *
+     * @param socket the socket of the connection
+     */
+    void removeConnection(Socket socket) {
+        connections.remove(socket);
+    }
+
+    /**
+     * Checks whether the server was closed.
+     *
+     * @return true once close was called
+     */
+    public boolean isClosed() {
+        return serverSocket.isClosed();
+    }
+
+    /**
+     * Returns the number of currently hosted sessions.
+     *
+     * @return the session count
+     */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops accepting connections and closes open connections and sessions.
+     * Connections are ended by closing their sockets rather than by interrupting them,
+     * an interrupt would also close the log files of their sessions before they are forced.
+     *
+     * @throws IOException if closing the socket fails
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : connections) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+        executor.shutdown();
+        for (int id : sessions.keySet()) {
+            closeSession(id);
+        }
+    }
+
+    /**
+     * The main entry point of the server.
+     * Options: --port N (default 7777), --log-dir DIR (default "sessions").
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        int port = Protocol.DEFAULT_PORT;
+        String logDir = "sessions";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--log-dir" -> logDir = args[i + 1];
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+                }
+            }
+        }
+
+        try (GameServer server = new GameServer(port, Paths.get(logDir))) {
+            System.out.println("Listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+            server.serve();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description A game hosted by the server. Wraps a game manager with its own log file
+ *              and a frame stream for every subscribed remote view, and serializes all commands
+ *              on the session with a lock, so one session can be driven from several connections.
+ */
+
+package GameServer;
+
+import GameLogic.Common.Position;
+import GameManager.BoardDiffStream;
+import GameManager.GameLogger;
+import GameManager.GameManager;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class GameSession {
+    private static final int KEYFRAME_INTERVAL = 64;
+
+    private final int id;
+    private final GameManager manager;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Frame streams by subscriber, each remembers what its subscriber was sent
+    private final Map<Object, BoardDiffStream> streams = new HashMap<>();
+    // Set by close under the lock; a command that waited for the lock must not run afterwards
+    private boolean closed = false;
+
+    /**
+     * Creates a new shuffled game for the session.
+     *
+     * @param id the session identifier
+     * @param difficulty the difficulty level (1 = Easy, 2 = Medium, 3 = Hard)
+     * @param logFile the log file of the session
+     */
+    public GameSession(int id, int difficulty, File logFile) {
+        this.id = id;
+        this.manager = new GameManager(difficulty, true, new GameLogger(logFile));
+    }
+
+    /**
+     * Returns the session identifier.
+     *
+     * @return the session id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the lock guarding this session. Callers hold it for the whole command.
+     *
+     * @return the session lock
+     */
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Returns the game manager of the session.
+     *
+     * @return the game manager
+     */
+    public GameManager getManager() {
+        return manager;
+    }
+
+    /**
+     * Encodes the remaining rotations of every cell, row by row.
+     *
+     * @return the hint for every cell
+     */
+    public byte[] encodeHint() {
+        int rows = manager.game.rows();
+        int cols = manager.game.cols();
+        byte[] steps = new byte[rows * cols];
+        for (int r = 1; r <= rows; r++) {
+            for (int c = 1; c <= cols; c++) {
+                steps[(r - 1) * cols + c - 1] = (byte) manager.remainingTurns(new Position(r, c));
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * Returns the frame stream of the session's board for the given subscriber,
+     * created on the first call. Callers hold the session lock.
+     *
+     * @param subscriber the receiver of the frames, e.g. a connection
+     * @return the board frame stream of the subscriber
+     */
+    public BoardDiffStream getStream(Object subscriber) {
+        return streams.computeIfAbsent(subscriber, s -> new BoardDiffStream(manager.game, KEYFRAME_INTERVAL));
+    }
+
+    /**
+     * Stops streaming the board to the given subscriber. Callers hold the session lock.
+     *
+     * @param subscriber the receiver of the frames
+     */
+    public void unsubscribe(Object subscriber) {
+        BoardDiffStream stream = streams.remove(subscriber);
+        if (stream != null) {
+            stream.detach();
+        }
+    }
+
+    /**
+     * Checks whether the session was closed. Callers hold the session lock.
+     *
+     * @return true once close was called
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops tracking the board and forces the session's log to the disk.
+     * Callers hold the session lock.
+     */
+    public void close() {
+        closed = true;
+        for (BoardDiffStream stream : streams.values()) {
+            stream.detach();
+        }
+        streams.clear();
+        manager.close();
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Constants and cell encoding of the binary game server protocol.
+ *
+ *              Request:  [u8 command][i32 session id][payload]
+ *              Response: [u8 status][payload], on error the payload is a UTF message.
+ *
+ *              NEW_GAME  payload: u8 difficulty            response: i32 session id
+ *              ROTATE    payload: u16 row, u16 col         response: u8 solved
+ *              UNDO/REDO payload: none                     response: u8 can undo, u8 can redo
+ *              HINT      payload: none                     response: u16 rows, u16 cols, u8 step per cell
+ *              SNAPSHOT  payload: none                     response: i32 length, keyframe
+ *              DIFF      payload: none                     response: i32 length, next frame (delta or keyframe)
+ *              CLOSE     payload: none                     response: none
+ *
+ *              Cells are ordered row by row. Frames are encoded by BoardDiffStream and
+ *              decoded by BoardFrameDecoder. The session id of NEW_GAME is ignored.
+ *              Sessions are owned by the connection that created them and are closed
+ *              when it ends, even without CLOSE. Only the owner may close a session.
+ */
+
+package GameServer;
+
+public final class Protocol {
+    public static final int DEFAULT_PORT = 7777;
+
+    public static final byte NEW_GAME = 1;
+    public static final byte ROTATE = 2;
+    public static final byte UNDO = 3;
+    public static final byte REDO = 4;
+    public static final byte HINT = 5;
+    public static final byte SNAPSHOT = 6;
+    public static final byte DIFF = 7;
+    public static final byte CLOSE = 8;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+
+    private Protocol() {
+    }
+}
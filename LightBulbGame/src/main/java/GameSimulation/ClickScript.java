@@ -0,0 +1,127 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Source of actions for a simulated player.
+ *              Either replays a fixed script loaded from a file, or generates random clicks
+ *              with an occasional undo or redo.
+ */
+
+package GameSimulation;
+
+import GameLogic.Common.Position;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ClickScript {
+    private final List<SimulationAction> script;
+    private final Random rand;
+    private final int rows;
+    private final int cols;
+    private int next = 0;
+
+    private ClickScript(List<SimulationAction> script, Random rand, int rows, int cols) {
+        this.script = script;
+        this.rand = rand;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Creates a script of random actions on a board of the given size.
+     * Roughly 80 % of actions are rotations, 10 % undos and 10 % redos.
+     *
+     * @param seed the seed of the random generator
+     * @param rows the number of rows of the board
+     * @param cols the number of columns of the board
+     * @return a random click script
+     */
+    public static ClickScript random(long seed, int rows, int cols) {
+        return new ClickScript(null, new Random(seed), rows, cols);
+    }
+
+    /**
+     * Creates a script that cycles through the given actions.
+     *
+     * @param actions the actions to replay
+     * @return a scripted click script
+     */
+    public static ClickScript scripted(List<SimulationAction> actions) {
+        if (actions.isEmpty()) {
+            throw new IllegalArgumentException("Script contains no actions");
+        }
+        return new ClickScript(actions, null, 0, 0);
+    }
+
+    /**
+     * Loads a script from a text file. Each line contains one action:
+     * "ROTATE row col", "UNDO" or "REDO". Empty lines are ignored.
+     *
+     * @param file the script file
+     * @return a scripted click script
+     * @throws IOException if reading the file fails
+     * @throws IllegalArgumentException if a line cannot be parsed
+     */
+    public static ClickScript load(Path file) throws IOException {
+        List<SimulationAction> actions = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts[0].isEmpty()) continue;
+
+            switch (parts[0]) {
+                case "ROTATE" -> {
+                    if (parts.length != 3) {
+                        throw new IllegalArgumentException("Invalid script line: " + line);
+                    }
+                    Position pos = new Position(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    actions.add(new SimulationAction(SimulationOperation.ROTATE, pos));
+                }
+                case "UNDO" -> actions.add(new SimulationAction(SimulationOperation.UNDO, null));
+                case "REDO" -> actions.add(new SimulationAction(SimulationOperation.REDO, null));
+                default -> throw new IllegalArgumentException("Invalid script line: " + line);
+            }
+        }
+        return scripted(actions);
+    }
+
+    /**
+     * Returns a copy of this script with its own position, so that every session
+     * replays the script from the beginning.
+     *
+     * @param seed the seed used by a random script
+     * @return an independent script
+     */
+    public ClickScript copy(long seed) {
+        if (script != null) {
+            return new ClickScript(script, null, 0, 0);
+        }
+        return random(seed, rows, cols);
+    }
+
+    /**
+     * Returns the next action of the script.
+     *
+     * @return the next action
+     */
+    public SimulationAction next() {
+        if (script != null) {
+            SimulationAction action = script.get(next);
+            next = (next + 1) % script.size();
+            return action;
+        }
+
+        int roll = rand.nextInt(10);
+        if (roll == 0) {
+            return new SimulationAction(SimulationOperation.UNDO, null);
+        }
+        if (roll == 1) {
+            return new SimulationAction(SimulationOperation.REDO, null);
+        }
+        Position pos = new Position(rand.nextInt(rows) + 1, rand.nextInt(cols) + 1);
+        return new SimulationAction(SimulationOperation.ROTATE, pos);
+    }
+}
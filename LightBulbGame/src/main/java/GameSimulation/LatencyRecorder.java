@@ -0,0 +1,70 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Collects latency samples of one operation.
+ *              Each session owns its recorders; they are merged after the run.
+ */
+
+package GameSimulation;
+
+import java.util.Arrays;
+
+public class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count = 0;
+    private boolean sorted = true;
+
+    /**
+     * Records a single latency sample.
+     *
+     * @param nanos the measured latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+        sorted = false;
+    }
+
+    /**
+     * Adds all samples of another recorder to this one.
+     *
+     * @param other the recorder to merge
+     */
+    public void merge(LatencyRecorder other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        sorted = false;
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     *
+     * @return the sample count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the given percentile of the recorded samples.
+     *
+     * @param percentile the percentile in range 0–100
+     * @return the latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return samples[Math.max(0, Math.min(count - 1, index))];
+    }
+}
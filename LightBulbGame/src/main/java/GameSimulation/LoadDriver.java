@@ -0,0 +1,139 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Headless load driver for the game core.
+ *              Runs many independent game sessions concurrently without JavaFX,
+ *              replays scripted or random clicks at a target rate and reports
+ *              throughput and latency percentiles per operation.
+ *              Every session writes its own log file.
+ */
+
+package GameSimulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LoadDriver {
+    private int sessions = 16;
+    private int actions = 1000;
+    private double rate = 0;
+    private int difficulty = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long seed = 42;
+    private String scriptFile = null;
+    private String logDir = null;
+
+    /**
+     * Parses the command-line options of the driver.
+     *
+     * @param args the command-line arguments
+     * @throws IllegalArgumentException if an option is unknown or has no value
+     */
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--sessions" -> sessions = Integer.parseInt(value);
+                case "--actions" -> actions = Integer.parseInt(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--difficulty" -> difficulty = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--script" -> scriptFile = value;
+                case "--log-dir" -> logDir = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Runs all sessions and prints the report.
+     *
+     * @throws IOException if the script file cannot be read
+     * @throws InterruptedException if the driver is interrupted while waiting for sessions
+     * @throws ExecutionException if a session fails
+     */
+    private void run() throws IOException, InterruptedException, ExecutionException {
+        int size = switch (difficulty) {
+            case 1 -> 5;
+            case 2 -> 7;
+            case 3 -> 9;
+            default -> throw new IllegalArgumentException("Unknown difficulty: " + difficulty);
+        };
+        ClickScript script = scriptFile != null
+                ? ClickScript.load(Paths.get(scriptFile))
+                : ClickScript.random(seed, size, size);
+
+        Path logPath = logDir != null
+                ? Files.createDirectories(Paths.get(logDir))
+                : Files.createTempDirectory("lightbulb-simulation");
+
+        Map<SimulationOperation, LatencyRecorder> total = new EnumMap<>(SimulationOperation.class);
+        for (SimulationOperation operation : SimulationOperation.values()) {
+            total.put(operation, new LatencyRecorder());
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<Map<SimulationOperation, LatencyRecorder>>> results = new ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                File logFile = logPath.resolve("session-" + i + ".log").toFile();
+                results.add(executor.submit(new SimulationSession(difficulty, script.copy(seed + i), actions, rate, logFile)));
+            }
+            for (Future<Map<SimulationOperation, LatencyRecorder>> result : results) {
+                for (Map.Entry<SimulationOperation, LatencyRecorder> entry : result.get().entrySet()) {
+                    total.get(entry.getKey()).merge(entry.getValue());
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("sessions=%d actions=%d rate=%.1f/s difficulty=%d threads=%d time=%.2fs logs=%s%n",
+                sessions, actions, rate, difficulty, threads, seconds, logPath);
+        System.out.printf("%-8s %10s %12s %10s %10s %10s %10s %10s%n",
+                "op", "count", "ops/s", "p50[us]", "p90[us]", "p99[us]", "p99.9[us]", "max[us]");
+        for (Map.Entry<SimulationOperation, LatencyRecorder> entry : total.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            if (recorder.count() == 0) continue;
+            System.out.printf("%-8s %10d %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), recorder.count(), recorder.count() / seconds,
+                    recorder.percentile(50) / 1e3, recorder.percentile(90) / 1e3,
+                    recorder.percentile(99) / 1e3, recorder.percentile(99.9) / 1e3,
+                    recorder.percentile(100) / 1e3);
+        }
+    }
+
+    /**
+     * The main entry point of the load driver.
+     * Options: --sessions N, --actions N (per session), --rate R (actions per second per session, 0 = unlimited),
+     * --difficulty 1-3, --threads N, --seed S, --script FILE, --log-dir DIR (default: a new temporary directory).
+     *
+     * @param args the command-line arguments
+     */
+    public static void main(String[] args) {
+        LoadDriver driver = new LoadDriver();
+        try {
+            driver.parseArgs(args);
+            driver.run();
+        } catch (IllegalArgumentException | IOException | ExecutionException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
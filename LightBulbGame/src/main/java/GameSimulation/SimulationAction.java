@@ -0,0 +1,13 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description A single scripted action of a simulated player.
+ *              The position is only used by rotations.
+ */
+
+package GameSimulation;
+
+import GameLogic.Common.Position;
+
+public record SimulationAction(SimulationOperation operation, Position position) {
+}
@@ -0,0 +1,11 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Operations performed by a simulated player and measured by the load driver.
+ */
+
+package GameSimulation;
+
+public enum SimulationOperation {
+    CREATE, ROTATE, UNDO, REDO
+}
@@ -0,0 +1,88 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description A single simulated player. Creates its own game and performs
+ *              a number of actions at a target rate, measuring the latency of each operation.
+ */
+
+package GameSimulation;
+
+import GameManager.GameLogger;
+import GameManager.GameManager;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.LockSupport;
+
+public class SimulationSession implements Callable<Map<SimulationOperation, LatencyRecorder>> {
+    private final int difficulty;
+    private final ClickScript script;
+    private final int actions;
+    private final long intervalNanos;
+    private final File logFile;
+
+    /**
+     * Constructs a new simulated session.
+     *
+     * @param difficulty the difficulty of the created game
+     * @param script the source of actions for this session
+     * @param actions the number of actions to perform
+     * @param rate the target number of actions per second, 0 for unlimited
+     * @param logFile the log file of this session
+     */
+    public SimulationSession(int difficulty, ClickScript script, int actions, double rate, File logFile) {
+        this.difficulty = difficulty;
+        this.script = script;
+        this.actions = actions;
+        this.intervalNanos = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+        this.logFile = logFile;
+    }
+
+    /**
+     * Runs the session and returns the recorded latencies per operation.
+     * Latency is measured from the scheduled start of an action, so a session
+     * that falls behind its target rate also reports the waiting time.
+     *
+     * @return the latency recorders of all operations
+     */
+    @Override
+    public Map<SimulationOperation, LatencyRecorder> call() {
+        Map<SimulationOperation, LatencyRecorder> recorders = new EnumMap<>(SimulationOperation.class);
+        for (SimulationOperation operation : SimulationOperation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+
+        long start = System.nanoTime();
+        GameManager manager = new GameManager(difficulty, true, new GameLogger(logFile));
+        recorders.get(SimulationOperation.CREATE).record(System.nanoTime() - start);
+
+        long scheduled = System.nanoTime();
+        for (int i = 0; i < actions; i++) {
+            if (intervalNanos > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            else {
+                scheduled = System.nanoTime();
+            }
+
+            SimulationAction action = script.next();
+            switch (action.operation()) {
+                case ROTATE -> manager.rotateNodeAndCheckResult(action.position());
+                case UNDO -> manager.undo();
+                case REDO -> manager.redo();
+                default -> { }
+            }
+            recorders.get(action.operation()).record(System.nanoTime() - scheduled);
+
+            scheduled += intervalNanos;
+        }
+        manager.close();
+
+        return recorders;
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Encodes a board as a CNF formula whose models are the orientations of all tiles
+ *              that light every bulb.
+ *
+ *              Variables per cell: one per distinct orientation of its tile (exactly one is true)
+ *              and one per side telling whether the oriented tile has a connector there.
+ *              Every pair of neighbours gets an edge variable, true iff both connectors face each other.
+ *              With matched connectors, every connector must face a connector of its neighbour,
+ *              as on the boards of GenerateGameService; otherwise open connectors are allowed.
+ *
+ *              Reachability of the power from every bulb is added by addReachability:
+ *              a powered cell other than a power node needs a parent, a connected powered
+ *              neighbour of a lower rank, and ranks are binary numbers, so a model cannot power
+ *              a cycle by itself. The encoding has O(n log n) variables. BoardSolver leaves it out
+ *              and adds cut clauses lazily instead, which is much faster on large boards.
+ *
+ *              Cells are numbered row by row from 0, sides are 0 north, 1 east, 2 south, 3 west,
+ *              connector masks use the bits 1 north, 2 east, 4 south, 8 west (see GameNode.connectorMask).
+ */
+
+package GameSolver;
+
+import GameLogic.Common.GameNode;
+import GameLogic.Common.GameNodeType;
+import GameLogic.Common.Orientations;
+import GameLogic.Common.Position;
+import GameLogic.Game.Game;
+
+public class BoardEncoder {
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final boolean[] power;
+    private final boolean[] bulb;
+    // Connector mask of every tile in the orientation it was given in
+    private final int[] tiles;
+    private final int[] orientationBase;
+    private final int connectorBase;
+    private final int edgeBase;
+    private final CnfFormula formula = new CnfFormula();
+
+    /**
+     * Encodes the tiles of a board and the matching of their connectors.
+     * The current orientation of the tiles does not matter.
+     *
+     * @param game the board
+     * @param matchedConnectors whether every connector must face a connector of its neighbour
+     */
+    public BoardEncoder(Game game, boolean matchedConnectors) {
+        this.rows = game.rows();
+        this.cols = game.cols();
+        this.cells = rows * cols;
+        this.power = new boolean[cells];
+        this.bulb = new boolean[cells];
+        this.tiles = new int[cells];
+        this.orientationBase = new int[cells];
+
+        for (int i = 0; i < cells; i++) {
+            GameNode node = game.node(new Position(i / cols + 1, i % cols + 1));
+            int mask = node == null ? 0 : node.connectorMask();
+            power[i] = node != null && node.Type == GameNodeType.POWER;
+            bulb[i] = node != null && node.Type == GameNodeType.BULB;
+            tiles[i] = mask;
+            orientationBase[i] = formula.newVariables(Orientations.count(mask));
+        }
+        this.connectorBase = formula.newVariables(cells * 4);
+        this.edgeBase = formula.newVariables(cells * 2);
+
+        for (int i = 0; i < cells; i++) {
+            encodeTile(i);
+        }
+        for (int i = 0; i < cells; i++) {
+            encodeEdge(i, 1, matchedConnectors);
+            encodeEdge(i, 2, matchedConnectors);
+            if (matchedConnectors) {
+                for (int side = 0; side < 4; side++) {
+                    if (neighbour(i, side) < 0) {
+                        formula.addClause(-connectorVariable(i, side));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes a board completely, including the reachability of the power from every bulb,
+     * e.g. to be exported in the DIMACS format.
+     *
+     * @param game the board
+     * @param matchedConnectors whether every connector must face a connector of its neighbour
+     * @return the formula
+     */
+    public static CnfFormula encode(Game game, boolean matchedConnectors) {
+        BoardEncoder encoder = new BoardEncoder(game, matchedConnectors);
+        encoder.addReachability();
+        return encoder.formula();
+    }
+
+    /**
+     * Adds the requirement that every bulb is connected to a power node.
+     */
+    public void addReachability() {
+        int bits = 1;
+        while ((1 << bits) < cells) {
+            bits++;
+        }
+        int poweredBase = formula.newVariables(cells);
+        int rankBase = formula.newVariables(cells * bits);
+
+        for (int i = 0; i < cells; i++) {
+            int powered = poweredBase + i;
+            if (power[i]) {
+                formula.addClause(powered);
+                continue;
+            }
+            if (bulb[i]) {
+                formula.addClause(powered);
+            }
+
+            // powered -> some parent
+            int[] parents = new int[5];
+            int count = 0;
+            parents[count++] = -powered;
+            for (int side = 0; side < 4; side++) {
+                int other = neighbour(i, side);
+                if (other < 0) {
+                    continue;
+                }
+                int parent = formula.newVariable();
+                parents[count++] = parent;
+                formula.addClause(-parent, edgeVariable(i, side));
+                formula.addClause(-parent, poweredBase + other);
+                if (!power[other]) {
+                    addLessThan(parent, rankBase + other * bits, rankBase + i * bits, bits);
+                }
+            }
+            int[] clause = new int[count];
+            System.arraycopy(parents, 0, clause, 0, count);
+            formula.addClause(clause);
+        }
+    }
+
+    /**
+     * Adds condition -> a < b for two unsigned numbers given by their bits, least significant first.
+     * L_k stands for a[k..0] < b[k..0]; only the implication towards the bits is needed.
+     */
+    private void addLessThan(int condition, int a, int b, int bits) {
+        int less = formula.newVariables(bits);
+        formula.addClause(-condition, less + bits - 1);
+        for (int k = bits - 1; k > 0; k--) {
+            int l = less + k;
+            formula.addClause(-l, -(a + k), b + k);
+            formula.addClause(-l, b + k, l - 1);
+            formula.addClause(-l, -(a + k), l - 1);
+        }
+        formula.addClause(-less, -a);
+        formula.addClause(-less, b);
+    }
+
+    // Exactly one orientation, which fixes the connector variables
+    private void encodeTile(int cell) {
+        int count = Orientations.count(tiles[cell]);
+        int base = orientationBase[cell];
+        int[] any = new int[count];
+        for (int k = 0; k < count; k++) {
+            any[k] = base + k;
+            for (int j = k + 1; j < count; j++) {
+                formula.addClause(-(base + k), -(base + j));
+            }
+            for (int side = 0; side < 4; side++) {
+                boolean has = (Orientations.orientation(tiles[cell], k) & (1 << side)) != 0;
+                formula.addClause(-(base + k), has ? connectorVariable(cell, side) : -connectorVariable(cell, side));
+            }
+        }
+        formula.addClause(any);
+    }
+
+    // Edge to the east or south neighbour: both connectors face each other
+    private void encodeEdge(int cell, int side, boolean matchedConnectors) {
+        int other = neighbour(cell, side);
+        if (other < 0) {
+            return;
+        }
+        int edge = edgeVariable(cell, side);
+        int from = connectorVariable(cell, side);
+        int to = connectorVariable(other, (side + 2) & 3);
+        formula.addClause(-edge, from);
+        formula.addClause(-edge, to);
+        formula.addClause(-from, -to, edge);
+        if (matchedConnectors) {
+            formula.addClause(-from, to);
+            formula.addClause(-to, from);
+        }
+    }
+
+    public CnfFormula formula() {
+        return formula;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public boolean isPower(int cell) {
+        return power[cell];
+    }
+
+    public boolean isBulb(int cell) {
+        return bulb[cell];
+    }
+
+    /**
+     * Returns the neighbouring cell on a side.
+     *
+     * @param cell the cell
+     * @param side the side, 0 north to 3 west
+     * @return the neighbour, or -1 at the edge of the board
+     */
+    public int neighbour(int cell, int side) {
+        int row = cell / cols;
+        int col = cell % cols;
+        return switch (side) {
+            case 0 -> row > 0 ? cell - cols : -1;
+            case 1 -> col < cols - 1 ? cell + 1 : -1;
+            case 2 -> row < rows - 1 ? cell + cols : -1;
+            default -> col > 0 ? cell - 1 : -1;
+        };
+    }
+
+    /**
+     * Returns the variable of the edge between a cell and its neighbour.
+     *
+     * @param cell the cell
+     * @param side the side of the neighbour, 0 north to 3 west
+     * @return the variable, or 0 at the edge of the board
+     */
+    public int edgeVariable(int cell, int side) {
+        int other = neighbour(cell, side);
+        if (other < 0) {
+            return 0;
+        }
+        return switch (side) {
+            case 0 -> edgeBase + other * 2 + 1;
+            case 1 -> edgeBase + cell * 2;
+            case 2 -> edgeBase + cell * 2 + 1;
+            default -> edgeBase + other * 2;
+        };
+    }
+
+    public int connectorVariable(int cell, int side) {
+        return connectorBase + cell * 4 + side;
+    }
+
+    public int orientationCount(int cell) {
+        return Orientations.count(tiles[cell]);
+    }
+
+    public int orientationVariable(int cell, int k) {
+        return orientationBase[cell] + k;
+    }
+
+    /**
+     * Reads the connector masks of all cells from a model.
+     *
+     * @param solver the solver after a successful solve
+     * @return the connector mask of every cell, row by row
+     */
+    public int[] decode(CdclSolver solver) {
+        int[] masks = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            for (int k = 0; k < Orientations.count(tiles[i]); k++) {
+                if (solver.value(orientationBase[i] + k)) {
+                    masks[i] = Orientations.orientation(tiles[i], k);
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Returns the orientation of a cell chosen by a model.
+     *
+     * @param solver the solver after a successful solve
+     * @param cell the cell
+     * @return the index of the orientation, see orientationVariable
+     */
+    public int chosenOrientation(CdclSolver solver, int cell) {
+        for (int k = 0; k < Orientations.count(tiles[cell]); k++) {
+            if (solver.value(orientationBase[cell] + k)) {
+                return k;
+            }
+        }
+        return 0;
+    }
+}
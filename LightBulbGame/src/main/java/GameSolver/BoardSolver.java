@@ -0,0 +1,206 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Solves boards with the embedded CDCL solver.
+ *              The formula of BoardEncoder without reachability is solved first; when a model
+ *              leaves a bulb unpowered, the component of the bulb is cut off by a clause
+ *              requiring one of its boundary edges, and the solver continues incrementally.
+ *              Every cut holds for all solutions, so the cuts are never undone.
+ *              Found solutions are blocked, so solve enumerates distinct solutions,
+ *              which gives uniqueness checks of generated boards.
+ */
+
+package GameSolver;
+
+import GameLogic.Game.Game;
+
+import java.util.Arrays;
+
+public class BoardSolver {
+    private final BoardEncoder encoder;
+    private final CdclSolver solver = new CdclSolver();
+    private final int cells;
+    private final boolean[] powered;
+    // Cells in the order of flooding
+    private final int[] order;
+    // Cells of the last cut component are marked by its number
+    private final int[] componentOf;
+    private int component = 0;
+    private int cuts = 0;
+
+    /**
+     * Creates a solver for a board on which every connector must be matched,
+     * as on the boards of GenerateGameService.
+     *
+     * @param game the board; its current orientation does not matter
+     */
+    public BoardSolver(Game game) {
+        this(game, true);
+    }
+
+    /**
+     * Creates a solver for a board.
+     *
+     * @param game the board; its current orientation does not matter
+     * @param matchedConnectors whether every connector must face a connector of its neighbour
+     */
+    public BoardSolver(Game game, boolean matchedConnectors) {
+        this.encoder = new BoardEncoder(game, matchedConnectors);
+        this.cells = encoder.rows() * encoder.cols();
+        this.powered = new boolean[cells];
+        this.order = new int[cells];
+        this.componentOf = new int[cells];
+        encoder.formula().addTo(solver);
+    }
+
+    /**
+     * Finds a solution not returned before.
+     *
+     * @return the connector mask of every cell row by row, or null if there is no other solution
+     */
+    public int[] solve() {
+        while (solver.solve()) {
+            // Flood from the power nodes over the edges of the model
+            Arrays.fill(powered, false);
+            int count = 0;
+            for (int i = 0; i < cells; i++) {
+                if (encoder.isPower(i)) {
+                    powered[i] = true;
+                    order[count++] = i;
+                }
+            }
+            flood(count, powered);
+
+            boolean lit = true;
+            for (int i = 0; i < cells; i++) {
+                if (encoder.isBulb(i) && !powered[i]) {
+                    lit = false;
+                    addCut(i);
+                }
+            }
+            if (lit) {
+                int[] masks = encoder.decode(solver);
+                block();
+                return masks;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts the solutions not returned before, up to a limit.
+     *
+     * @param limit the number of solutions at which to stop
+     * @return the number of solutions found
+     */
+    public int countSolutions(int limit) {
+        int count = 0;
+        while (count < limit && solve() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a board has exactly one solution under the win rule of the game:
+     * every bulb is powered, connectors leading nowhere are allowed (see PowerNetwork.allBulbsPowered).
+     *
+     * @param game the board
+     * @return true if there is exactly one orientation of the tiles lighting all bulbs
+     */
+    public static boolean hasUniqueSolution(Game game) {
+        return new BoardSolver(game, false).countSolutions(2) == 1;
+    }
+
+    /**
+     * Checks whether a board has exactly one solution in which every connector is matched,
+     * the stricter rule the boards of GenerateGameService are built by.
+     *
+     * @param game the board
+     * @return true if there is exactly one orientation of the tiles lighting all bulbs
+     *         with every connector facing a connector of its neighbour
+     */
+    public static boolean hasUniqueMatchedSolution(Game game) {
+        return new BoardSolver(game, true).countSolutions(2) == 1;
+    }
+
+    /**
+     * Returns the number of cut clauses added so far.
+     *
+     * @return the cut count
+     */
+    public int cuts() {
+        return cuts;
+    }
+
+    public CdclSolver solver() {
+        return solver;
+    }
+
+    /**
+     * Marks the cells reachable over the edges of the model from the first count cells of order
+     * and lists them in order.
+     *
+     * @return the number of listed cells
+     */
+    private int flood(int count, boolean[] reached) {
+        for (int head = 0; head < count; head++) {
+            int cell = order[head];
+            for (int side = 0; side < 4; side++) {
+                int edge = encoder.edgeVariable(cell, side);
+                if (edge == 0 || !solver.value(edge)) {
+                    continue;
+                }
+                int other = encoder.neighbour(cell, side);
+                if (!reached[other]) {
+                    reached[other] = true;
+                    order[count++] = other;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Requires an edge leaving the unpowered component of a bulb. The component is
+     * marked as powered afterwards, so each component gets one cut.
+     */
+    private void addCut(int bulb) {
+        powered[bulb] = true;
+        order[0] = bulb;
+        int count = flood(1, powered);
+        component++;
+        for (int k = 0; k < count; k++) {
+            componentOf[order[k]] = component;
+        }
+
+        int[] clause = new int[16];
+        int size = 0;
+        for (int k = 0; k < count; k++) {
+            int cell = order[k];
+            for (int side = 0; side < 4; side++) {
+                int other = encoder.neighbour(cell, side);
+                if (other >= 0 && componentOf[other] != component) {
+                    if (size == clause.length) {
+                        clause = Arrays.copyOf(clause, size * 2);
+                    }
+                    clause[size++] = encoder.edgeVariable(cell, side);
+                }
+            }
+        }
+        solver.addClause(Arrays.copyOf(clause, size));
+        cuts++;
+    }
+
+    // Excludes the orientations of the current model
+    private void block() {
+        int[] clause = new int[cells];
+        int size = 0;
+        for (int i = 0; i < cells; i++) {
+            if (encoder.orientationCount(i) > 1) {
+                clause[size++] = -encoder.orientationVariable(i, encoder.chosenOrientation(solver, i));
+            }
+        }
+        solver.addClause(Arrays.copyOf(clause, size));
+    }
+}
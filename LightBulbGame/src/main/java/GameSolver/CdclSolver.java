@@ -0,0 +1,579 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Conflict-driven clause learning SAT solver in the style of MiniSat:
+ *              two watched literals, first-UIP learning with clause minimization,
+ *              VSIDS branching with phase saving, Luby restarts and periodic
+ *              deletion of inactive learnt clauses.
+ *              The solver is incremental: clauses may be added between calls of solve,
+ *              which is how BoardSolver adds its connectivity cuts and blocking clauses.
+ *              Variables and literals use the DIMACS numbering of CnfFormula.
+ */
+
+package GameSolver;
+
+import java.util.Arrays;
+
+public class CdclSolver {
+    private static final int RESTART_UNIT = 100;
+    private static final double VARIABLE_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+
+    private int variableCount = 0;
+
+    // Per variable, indexed from 1
+    private byte[] assigns = new byte[1];
+    private int[] level = new int[1];
+    private int[] reason = new int[1];
+    private boolean[] phase = new boolean[1];
+    private boolean[] seen = new boolean[1];
+    private double[] activity = new double[1];
+    private int[] heap = new int[1];
+    private int[] heapIndex = new int[1];
+    private int heapSize = 0;
+    private double variableIncrement = 1;
+
+    // Per literal 2 * variable + sign, the clauses watching the literal
+    private int[][] watches = new int[2][];
+    private int[] watchCount = new int[2];
+
+    private int[][] clauses = new int[1024][];
+    private boolean[] learnt = new boolean[1024];
+    private double[] clauseActivity = new double[1024];
+    private int clauseCount = 0;
+    private int[] freeClauses = new int[16];
+    private int freeCount = 0;
+    private int learntCount = 0;
+    private double clauseIncrement = 1;
+    private double maxLearnts;
+
+    private int[] trail = new int[1];
+    private int trailSize = 0;
+    private int[] trailLimit = new int[16];
+    private int decisionLevel = 0;
+    private int propagationHead = 0;
+
+    private boolean ok = true;
+    private boolean[] model;
+    private long conflicts = 0;
+    private long decisions = 0;
+
+    /**
+     * Makes sure the solver knows the variables 1 to count.
+     *
+     * @param count the highest variable number
+     */
+    public void ensureVariables(int count) {
+        if (count <= variableCount) {
+            return;
+        }
+        int size = count + 1;
+        assigns = Arrays.copyOf(assigns, size);
+        level = Arrays.copyOf(level, size);
+        reason = Arrays.copyOf(reason, size);
+        phase = Arrays.copyOf(phase, size);
+        seen = Arrays.copyOf(seen, size);
+        activity = Arrays.copyOf(activity, size);
+        heap = Arrays.copyOf(heap, size);
+        heapIndex = Arrays.copyOf(heapIndex, size);
+        trail = Arrays.copyOf(trail, size);
+        watches = Arrays.copyOf(watches, size * 2);
+        watchCount = Arrays.copyOf(watchCount, size * 2);
+        for (int v = variableCount + 1; v <= count; v++) {
+            reason[v] = -1;
+            heapIndex[v] = -1;
+            watches[v * 2] = new int[4];
+            watches[v * 2 + 1] = new int[4];
+            heapInsert(v);
+        }
+        variableCount = count;
+    }
+
+    public int variableCount() {
+        return variableCount;
+    }
+
+    public long conflicts() {
+        return conflicts;
+    }
+
+    public long decisions() {
+        return decisions;
+    }
+
+    /**
+     * Adds a clause. Unknown variables are added to the solver.
+     *
+     * @param clause the literals of the clause in DIMACS numbering
+     * @return false if the clauses added so far are unsatisfiable
+     */
+    public boolean addClause(int... clause) {
+        if (!ok) {
+            return false;
+        }
+        int[] lits = new int[clause.length];
+        for (int i = 0; i < clause.length; i++) {
+            int variable = Math.abs(clause[i]);
+            ensureVariables(variable);
+            lits[i] = variable * 2 + (clause[i] < 0 ? 1 : 0);
+        }
+
+        // Drop duplicates and literals false at level 0, keep tautologies and satisfied clauses out
+        Arrays.sort(lits);
+        int size = 0;
+        for (int i = 0; i < lits.length; i++) {
+            int lit = lits[i];
+            if (valueOf(lit) > 0 || (size > 0 && lits[size - 1] == (lit ^ 1))) {
+                return true;
+            }
+            if (valueOf(lit) == 0 && (size == 0 || lits[size - 1] != lit)) {
+                lits[size++] = lit;
+            }
+        }
+
+        if (size == 0) {
+            ok = false;
+            return false;
+        }
+        if (size == 1) {
+            enqueue(lits[0], -1);
+            ok = propagate() < 0;
+            return ok;
+        }
+        attach(newClause(Arrays.copyOf(lits, size), false));
+        return true;
+    }
+
+    /**
+     * Searches for an assignment satisfying all clauses.
+     *
+     * @return true if one was found, see value; false if the clauses are unsatisfiable
+     */
+    public boolean solve() {
+        model = null;
+        if (!ok) {
+            return false;
+        }
+        maxLearnts = Math.max(clauseCount / 3.0, 2000);
+        for (int restart = 0; ; restart++) {
+            int result = search(luby(restart) * RESTART_UNIT);
+            if (result != 0) {
+                return result > 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the value of a variable in the assignment found by the last successful solve.
+     *
+     * @param variable the variable number
+     * @return the value of the variable
+     * @throws IllegalStateException if the last solve did not find an assignment
+     */
+    public boolean value(int variable) {
+        if (model == null) {
+            throw new IllegalStateException("No model available");
+        }
+        return variable < model.length && model[variable];
+    }
+
+    /**
+     * Runs CDCL until a model is found, unsatisfiability is proven or the conflict budget is spent.
+     *
+     * @return 1 if satisfiable, -1 if unsatisfiable, 0 on restart
+     */
+    private int search(long conflictBudget) {
+        long conflictsHere = 0;
+        while (true) {
+            int conflict = propagate();
+            if (conflict >= 0) {
+                conflicts++;
+                conflictsHere++;
+                if (decisionLevel == 0) {
+                    ok = false;
+                    return -1;
+                }
+                int[] learntClause = analyze(conflict);
+                cancelUntil(learntClause.length == 1 ? 0 : level[learntClause[1] >> 1]);
+                if (learntClause.length == 1) {
+                    enqueue(learntClause[0], -1);
+                }
+                else {
+                    int id = newClause(learntClause, true);
+                    attach(id);
+                    bumpClause(id);
+                    enqueue(learntClause[0], id);
+                }
+                variableIncrement /= VARIABLE_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+            }
+            else {
+                if (conflictsHere >= conflictBudget) {
+                    cancelUntil(0);
+                    return 0;
+                }
+                if (learntCount - trailSize >= maxLearnts) {
+                    reduceLearnts();
+                }
+                int next = pickBranch();
+                if (next < 0) {
+                    model = new boolean[variableCount + 1];
+                    for (int v = 1; v <= variableCount; v++) {
+                        model[v] = assigns[v] > 0;
+                    }
+                    cancelUntil(0);
+                    return 1;
+                }
+                decisions++;
+                if (decisionLevel == trailLimit.length) {
+                    trailLimit = Arrays.copyOf(trailLimit, trailLimit.length * 2);
+                }
+                trailLimit[decisionLevel++] = trailSize;
+                enqueue(next, -1);
+            }
+        }
+    }
+
+    /**
+     * Propagates all enqueued assignments.
+     *
+     * @return the conflicting clause, or -1
+     */
+    private int propagate() {
+        while (propagationHead < trailSize) {
+            int falseLit = trail[propagationHead++] ^ 1;
+            int[] list = watches[falseLit];
+            int count = watchCount[falseLit];
+            int kept = 0;
+            int i = 0;
+            next:
+            while (i < count) {
+                int id = list[i++];
+                int[] c = clauses[id];
+                if (c[0] == falseLit) {
+                    c[0] = c[1];
+                    c[1] = falseLit;
+                }
+                if (valueOf(c[0]) > 0) {
+                    list[kept++] = id;
+                    continue;
+                }
+                for (int k = 2; k < c.length; k++) {
+                    if (valueOf(c[k]) >= 0) {
+                        c[1] = c[k];
+                        c[k] = falseLit;
+                        watch(c[1], id);
+                        continue next;
+                    }
+                }
+                list[kept++] = id;
+                if (valueOf(c[0]) < 0) {
+                    while (i < count) {
+                        list[kept++] = list[i++];
+                    }
+                    watchCount[falseLit] = kept;
+                    propagationHead = trailSize;
+                    return id;
+                }
+                enqueue(c[0], id);
+            }
+            watchCount[falseLit] = kept;
+        }
+        return -1;
+    }
+
+    /**
+     * Derives the first-UIP clause of a conflict, minimized by the reasons of its literals.
+     * The asserting literal is first, a literal of the backjump level second.
+     */
+    private int[] analyze(int conflict) {
+        int[] out = new int[16];
+        int size = 1;
+        int pending = 0;
+        int lit = -1;
+        int index = trailSize - 1;
+        do {
+            if (learnt[conflict]) {
+                bumpClause(conflict);
+            }
+            int[] c = clauses[conflict];
+            for (int j = lit < 0 ? 0 : 1; j < c.length; j++) {
+                int variable = c[j] >> 1;
+                if (!seen[variable] && level[variable] > 0) {
+                    bumpVariable(variable);
+                    seen[variable] = true;
+                    if (level[variable] >= decisionLevel) {
+                        pending++;
+                    }
+                    else {
+                        if (size == out.length) {
+                            out = Arrays.copyOf(out, size * 2);
+                        }
+                        out[size++] = c[j];
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            lit = trail[index--];
+            conflict = reason[lit >> 1];
+            seen[lit >> 1] = false;
+            pending--;
+        } while (pending > 0);
+        out[0] = lit ^ 1;
+
+        // Drop literals implied by other literals of the clause
+        int[] marked = Arrays.copyOf(out, size);
+        int kept = 1;
+        for (int i = 1; i < size; i++) {
+            int r = reason[out[i] >> 1];
+            boolean redundant = r >= 0;
+            if (redundant) {
+                int[] c = clauses[r];
+                for (int j = 1; j < c.length && redundant; j++) {
+                    int variable = c[j] >> 1;
+                    redundant = seen[variable] || level[variable] == 0;
+                }
+            }
+            if (!redundant) {
+                out[kept++] = out[i];
+            }
+        }
+        for (int i = 1; i < size; i++) {
+            seen[marked[i] >> 1] = false;
+        }
+
+        // The literal of the highest level goes second, it is watched and decides the backjump
+        int max = 1;
+        for (int i = 2; i < kept; i++) {
+            if (level[out[i] >> 1] > level[out[max] >> 1]) {
+                max = i;
+            }
+        }
+        if (kept > 1) {
+            int swap = out[1];
+            out[1] = out[max];
+            out[max] = swap;
+        }
+        return Arrays.copyOf(out, kept);
+    }
+
+    private void enqueue(int lit, int from) {
+        int variable = lit >> 1;
+        assigns[variable] = (byte) ((lit & 1) == 0 ? 1 : -1);
+        level[variable] = decisionLevel;
+        reason[variable] = from;
+        trail[trailSize++] = lit;
+    }
+
+    private void cancelUntil(int target) {
+        if (decisionLevel <= target) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= trailLimit[target]; i--) {
+            int variable = trail[i] >> 1;
+            phase[variable] = assigns[variable] > 0;
+            assigns[variable] = 0;
+            reason[variable] = -1;
+            if (heapIndex[variable] < 0) {
+                heapInsert(variable);
+            }
+        }
+        trailSize = trailLimit[target];
+        propagationHead = trailSize;
+        decisionLevel = target;
+    }
+
+    /**
+     * Returns the unassigned variable of the highest activity with its saved phase, or -1.
+     */
+    private int pickBranch() {
+        while (heapSize > 0) {
+            int variable = heapRemoveMax();
+            if (assigns[variable] == 0) {
+                return variable * 2 + (phase[variable] ? 0 : 1);
+            }
+        }
+        return -1;
+    }
+
+    // Value of a literal: 1 true, -1 false, 0 unassigned
+    private int valueOf(int lit) {
+        int assigned = assigns[lit >> 1];
+        return (lit & 1) == 0 ? assigned : -assigned;
+    }
+
+    private int newClause(int[] lits, boolean isLearnt) {
+        int id;
+        if (freeCount > 0) {
+            id = freeClauses[--freeCount];
+        }
+        else {
+            if (clauseCount == clauses.length) {
+                clauses = Arrays.copyOf(clauses, clauseCount * 2);
+                learnt = Arrays.copyOf(learnt, clauseCount * 2);
+                clauseActivity = Arrays.copyOf(clauseActivity, clauseCount * 2);
+            }
+            id = clauseCount++;
+        }
+        clauses[id] = lits;
+        learnt[id] = isLearnt;
+        clauseActivity[id] = 0;
+        if (isLearnt) {
+            learntCount++;
+        }
+        return id;
+    }
+
+    private void attach(int id) {
+        watch(clauses[id][0], id);
+        watch(clauses[id][1], id);
+    }
+
+    private void watch(int lit, int id) {
+        if (watchCount[lit] == watches[lit].length) {
+            watches[lit] = Arrays.copyOf(watches[lit], watchCount[lit] * 2);
+        }
+        watches[lit][watchCount[lit]++] = id;
+    }
+
+    private void unwatch(int lit, int id) {
+        int[] list = watches[lit];
+        for (int i = 0; i < watchCount[lit]; i++) {
+            if (list[i] == id) {
+                list[i] = list[--watchCount[lit]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes the less active half of the learnt clauses that are longer than two
+     * literals and not the reason of a current assignment.
+     */
+    private void reduceLearnts() {
+        double[] activities = new double[learntCount];
+        int n = 0;
+        for (int id = 0; id < clauseCount; id++) {
+            if (clauses[id] != null && learnt[id]) {
+                activities[n++] = clauseActivity[id];
+            }
+        }
+        Arrays.sort(activities, 0, n);
+        double threshold = activities[n / 2];
+        for (int id = 0; id < clauseCount; id++) {
+            int[] c = clauses[id];
+            if (c == null || !learnt[id] || c.length <= 2 || clauseActivity[id] >= threshold) {
+                continue;
+            }
+            if (reason[c[0] >> 1] == id && valueOf(c[0]) > 0) {
+                continue;
+            }
+            unwatch(c[0], id);
+            unwatch(c[1], id);
+            clauses[id] = null;
+            learntCount--;
+            if (freeCount == freeClauses.length) {
+                freeClauses = Arrays.copyOf(freeClauses, freeCount * 2);
+            }
+            freeClauses[freeCount++] = id;
+        }
+        maxLearnts *= 1.1;
+    }
+
+    private void bumpVariable(int variable) {
+        activity[variable] += variableIncrement;
+        if (activity[variable] > 1e100) {
+            for (int v = 1; v <= variableCount; v++) {
+                activity[v] *= 1e-100;
+            }
+            variableIncrement *= 1e-100;
+        }
+        if (heapIndex[variable] >= 0) {
+            heapUp(heapIndex[variable]);
+        }
+    }
+
+    private void bumpClause(int id) {
+        clauseActivity[id] += clauseIncrement;
+        if (clauseActivity[id] > 1e20) {
+            for (int i = 0; i < clauseCount; i++) {
+                clauseActivity[i] *= 1e-20;
+            }
+            clauseIncrement *= 1e-20;
+        }
+    }
+
+    // Binary max-heap of variables ordered by activity
+
+    private void heapInsert(int variable) {
+        heap[heapSize] = variable;
+        heapIndex[variable] = heapSize;
+        heapUp(heapSize++);
+    }
+
+    private int heapRemoveMax() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            heapDown(0);
+        }
+        return top;
+    }
+
+    private void heapUp(int i) {
+        int variable = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (activity[heap[parent]] >= activity[variable]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = variable;
+        heapIndex[variable] = i;
+    }
+
+    private void heapDown(int i) {
+        int variable = heap[i];
+        while (true) {
+            int child = i * 2 + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) {
+                child++;
+            }
+            if (activity[heap[child]] <= activity[variable]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = variable;
+        heapIndex[variable] = i;
+    }
+
+    // The Luby sequence 1 1 2 1 1 2 4 1 1 2 ...
+    private static long luby(int i) {
+        int size = 1;
+        int sequence = 0;
+        while (size < i + 1) {
+            sequence++;
+            size = size * 2 + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            sequence--;
+            i = i % size;
+        }
+        return 1L << sequence;
+    }
+}
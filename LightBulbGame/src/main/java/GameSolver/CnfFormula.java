@@ -0,0 +1,116 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description A propositional formula in conjunctive normal form.
+ *              Variables are numbered from 1, a literal is a variable or its negation
+ *              as in the DIMACS format. Clauses are stored in one flat array.
+ */
+
+package GameSolver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+public class CnfFormula {
+    private int variableCount = 0;
+    private int[] literals = new int[1024];
+    private int literalCount = 0;
+    private int[] clauseStart = new int[256];
+    private int clauseCount = 0;
+
+    /**
+     * Allocates a new variable.
+     *
+     * @return the number of the variable
+     */
+    public int newVariable() {
+        return ++variableCount;
+    }
+
+    /**
+     * Allocates a block of consecutive variables.
+     *
+     * @param count the number of variables
+     * @return the number of the first variable of the block
+     */
+    public int newVariables(int count) {
+        int first = variableCount + 1;
+        variableCount += count;
+        return first;
+    }
+
+    /**
+     * Adds a clause, the disjunction of the given literals.
+     *
+     * @param clause the literals of the clause
+     * @throws IllegalArgumentException if a literal refers to an unknown variable
+     */
+    public void addClause(int... clause) {
+        for (int literal : clause) {
+            if (literal == 0 || Math.abs(literal) > variableCount) {
+                throw new IllegalArgumentException("Unknown variable in literal " + literal);
+            }
+        }
+        if (clauseCount + 1 >= clauseStart.length) {
+            clauseStart = Arrays.copyOf(clauseStart, clauseStart.length * 2);
+        }
+        if (literalCount + clause.length > literals.length) {
+            literals = Arrays.copyOf(literals, Math.max(literals.length * 2, literalCount + clause.length));
+        }
+        clauseStart[clauseCount++] = literalCount;
+        System.arraycopy(clause, 0, literals, literalCount, clause.length);
+        literalCount += clause.length;
+        clauseStart[clauseCount] = literalCount;
+    }
+
+    public int variableCount() {
+        return variableCount;
+    }
+
+    public int clauseCount() {
+        return clauseCount;
+    }
+
+    /**
+     * Returns a copy of the literals of a clause.
+     *
+     * @param index the index of the clause, in the order of addition
+     * @return the literals of the clause
+     */
+    public int[] clause(int index) {
+        return Arrays.copyOfRange(literals, clauseStart[index], clauseStart[index + 1]);
+    }
+
+    /**
+     * Adds all clauses of the formula to a solver.
+     *
+     * @param solver the solver, which gets the variables of the formula as well
+     */
+    public void addTo(CdclSolver solver) {
+        solver.ensureVariables(variableCount);
+        for (int i = 0; i < clauseCount; i++) {
+            solver.addClause(clause(i));
+        }
+    }
+
+    /**
+     * Writes the formula in the DIMACS CNF format, readable by external SAT solvers.
+     *
+     * @param out the writer to write to; it is not closed
+     * @throws IOException if writing fails
+     */
+    public void writeDimacs(Writer out) throws IOException {
+        out.write("p cnf " + variableCount + " " + clauseCount + "\n");
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < clauseCount; i++) {
+            line.setLength(0);
+            for (int j = clauseStart[i]; j < clauseStart[i + 1]; j++) {
+                line.append(literals[j]).append(' ');
+            }
+            line.append("0\n");
+            out.write(line.toString());
+        }
+        out.flush();
+    }
+}
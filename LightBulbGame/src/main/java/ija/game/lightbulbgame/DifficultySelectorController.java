@@ -3,20 +3,23 @@
  * @author Bedřich Petrášek (xpetra31)
  * @Description Controller for the difficulty selection screen.
  *              Allows the user to choose Easy, Medium, or Hard difficulty
- *              and navigates to the appropriate game view.
+ *              or a puzzle from a puzzle pack file, and navigates to the appropriate game view.
  */
 
 package ija.game.lightbulbgame;
 
+import GameLogic.Game.Game;
+import GameManager.PuzzlePack;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.scene.control.TextInputDialog;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Optional;
 
 public class DifficultySelectorController {
     /**
@@ -52,6 +55,52 @@ public class DifficultySelectorController {
         loadGameViewWithDifficulty(3, event);
     }
 
+    /**
+     * Handles the click event for the Puzzle Pack button.
+     * Lets the user pick a pack file and a puzzle number, then starts the game with that puzzle.
+     *
+     * @param event the triggered action event
+     */
+    @FXML
+    protected void onPackButtonClick(ActionEvent event) {
+        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Vyberte sadu hlavolamů");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Sada hlavolamů", "*.pack"));
+        File file = chooser.showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
+
+        try {
+            PuzzlePack pack = PuzzlePack.open(file.toPath());
+            if (pack.size() == 0) {
+                return;
+            }
+
+            TextInputDialog dialog = new TextInputDialog("1");
+            dialog.setTitle("Sada hlavolamů");
+            dialog.setHeaderText(null);
+            dialog.setContentText("Číslo hlavolamu (1–" + pack.size() + "):");
+            Optional<String> number = dialog.showAndWait();
+            if (number.isEmpty()) {
+                return;
+            }
+
+            int index = Integer.parseInt(number.get().trim()) - 1;
+            Game puzzle = pack.load(index);
+
+            ViewCache.View<GameController> view = ViewCache.fresh("GameView.fxml");
+            view.controller().setPuzzle(puzzle);
+
+            stage.setScene(view.scene());
+            stage.show();
+        } catch (IOException | NumberFormatException | IndexOutOfBoundsException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     /**
      * Handles the click event for the Back button.
      * Returns the user to the main menu view.
@@ -61,11 +110,8 @@ public class DifficultySelectorController {
     @FXML
     protected void onBackButtonClick(ActionEvent event) {
         try {
-            Parent mainView = FXMLLoader.load(getClass().getResource("MainView.fxml"));
-            Scene mainScene = new Scene(mainView);
-
             Stage window = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            window.setScene(mainScene);
+            window.setScene(ViewCache.get("MainView.fxml").scene());
             window.show();
         } catch (IOException e) {
             System.out.println(e.getMessage());
@@ -80,14 +126,11 @@ public class DifficultySelectorController {
      */
     private void loadGameViewWithDifficulty(int difficulty, ActionEvent event) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("GameView.fxml"));
-            Parent root = loader.load();
-
-            GameController controller = loader.getController();
-            controller.setDifficulty(difficulty, true);
+            ViewCache.View<GameController> view = ViewCache.fresh("GameView.fxml");
+            view.controller().setDifficulty(difficulty, true);
 
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setScene(new Scene(root));
+            stage.setScene(view.scene());
             stage.show();
         } catch (IOException e) {
             System.out.println(e.getMessage());
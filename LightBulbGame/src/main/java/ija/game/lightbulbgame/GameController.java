@@ -11,29 +11,36 @@ package ija.game.lightbulbgame;
 import GameLogic.Common.GameNode;
 import GameLogic.Common.GameNodeType;
 import GameLogic.Common.Position;
+import GameLogic.Game.Game;
+import GameLogic.Game.PowerNetwork;
+import GameManager.GameLogger;
 import GameManager.GameManager;
+import GameManager.ReplayPlayer;
+import GameMetrics.EngineEvents;
+import GameMetrics.Histogram;
+import GameMetrics.Metrics;
 import ija.ija2024.tool.common.Observable;
 import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
-import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.io.File;
 import java.io.IOException;
+import java.util.BitSet;
 
 public class GameController {
     @FXML
@@ -54,11 +61,41 @@ public class GameController {
     @FXML
     private Button playButton;
 
+    @FXML
+    private Button replayButton;
+
+    @FXML
+    private ComboBox<Integer> speedBox;
+
+    @FXML
+    private Label metricsLabel;
+
+    private static final Histogram repaintTime = Metrics.histogram(Metrics.TILE_REPAINT);
+
     private Timeline timeline;
     private int secondsElapsed = 0;
     private GameManager gameManager;
     private int difficulty;
     private boolean canPlay;
+    private Game puzzle;
+    private ReplayPlayer player;
+    private AnimationTimer playback;
+    private boolean playing;
+    // Tiles of the board, row by row
+    private StackPane[] tiles;
+    // Cells changed since the last frame; every one is redrawn once when the frame is flushed
+    private final BitSet dirtyCells = new BitSet();
+    private boolean flushScheduled;
+    // Runs for one pulse after a cell gets dirty, so any number of notifications costs one redraw
+    private final AnimationTimer tileRenderer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flushDirtyTiles();
+        }
+    };
+    // Nodes hold the tile observer weakly, so a board outliving this view does not keep it alive.
+    private Observable.Observer tileObserver;
+    private MetricsOverlay metricsOverlay;
 
     /**
      * Sets the game difficulty and initializes the game view.
@@ -71,6 +108,16 @@ public class GameController {
         init(createNewGame);
     }
 
+    /**
+     * Starts a new game on a puzzle loaded from a puzzle pack.
+     *
+     * @param puzzle the solved board of the puzzle
+     */
+    public void setPuzzle(Game puzzle) {
+        this.puzzle = puzzle;
+        init(true);
+    }
+
     /**
      * Initializes the game state, UI bindings, and logic.
      * Starts the timer and prepares the game board.
@@ -78,6 +125,7 @@ public class GameController {
      * @param createNewGame true if a new game is being started
      */
     public void init(boolean createNewGame) {
+        metricsOverlay = new MetricsOverlay(metricsLabel);
         timeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> updateTimer()));
         timeline.setCycleCount(Animation.INDEFINITE);
 
@@ -90,25 +138,122 @@ public class GameController {
             playButton.setVisible(true);
             canPlay = false;
         }
+        replayButton.setVisible(!createNewGame);
+        speedBox.setVisible(!createNewGame);
 
-        gameManager = new GameManager(difficulty, createNewGame);
+        if (gameManager != null) {
+            gameManager.close();
+        }
+        if (puzzle != null) {
+            gameManager = new GameManager(puzzle, new GameLogger());
+        }
+        else {
+            gameManager = new GameManager(difficulty, createNewGame);
+        }
 
         registerObserverForAllNodes();
         createGameBoard();
         updateMoves();
         updateButtonStates();
+
+        if (!createNewGame) {
+            initPlayback();
+        }
+    }
+
+    /**
+     * Prepares automatic playback of a loaded game. Every animation frame plays all moves
+     * due since the previous frame and redraws only the tiles that changed.
+     */
+    private void initPlayback() {
+        speedBox.getItems().setAll(1, 2, 5, 10, 50, 100, 1000, 10000);
+        speedBox.setValue(5);
+        player = new ReplayPlayer(gameManager, speedBox.getValue());
+        speedBox.setOnAction(e -> player.setSpeed(speedBox.getValue()));
+
+        playback = new AnimationTimer() {
+            private long lastFrame = -1;
+
+            @Override
+            public void start() {
+                lastFrame = -1;
+                super.start();
+            }
+
+            @Override
+            public void handle(long now) {
+                if (lastFrame >= 0) {
+                    renderPlaybackFrame(now - lastFrame);
+                }
+                lastFrame = now;
+            }
+        };
+    }
+
+    /**
+     * Plays the moves due in the elapsed time and redraws the rotated tiles
+     * and the tiles whose light changed. Intermediate states are never drawn.
+     *
+     * @param elapsedNanos the time since the previous frame
+     */
+    private void renderPlaybackFrame(long elapsedNanos) {
+        player.advance(elapsedNanos, this::markDirty);
+        // Drawn in this pulse already, the tile renderer would only run in the next one
+        flushDirtyTiles();
+
+        updateMoves();
+        updateButtonStates();
+        if (player.isFinished()) {
+            stopPlayback();
+        }
     }
 
     /**
-     * Registers a UI observer on every game node to update tiles
-     * when a node's state changes.
+     * Starts automatic playback from the current step, or from the beginning
+     * if the last step is shown.
+     */
+    private void startPlayback() {
+        if (playing) return;
+        if (player.isFinished()) {
+            player.rewind();
+            updateMoves();
+        }
+        if (player.isFinished()) return;
+
+        playing = true;
+        player.reset();
+        replayButton.setText("Pozastavit");
+        playback.start();
+    }
+
+    /**
+     * Stops automatic playback, if running.
+     */
+    private void stopPlayback() {
+        if (!playing) return;
+
+        playing = false;
+        playback.stop();
+        replayButton.setText("Přehrát");
+    }
+
+    /**
+     * Registers a UI observer on every game node that marks its tile dirty
+     * when the node's state changes. The observer is registered weakly and held by this controller,
+     * so the view can be collected once it is left. Notifications from other threads
+     * are passed to the JavaFX application thread.
      */
     private void registerObserverForAllNodes() {
-        var uiObserver = new Observable.Observer() {
+        tileObserver = new Observable.Observer() {
             @Override
             public void update(Observable observable) {
                 GameNode node = (GameNode) observable;
-                updateTile(node);
+                if (!Platform.isFxApplicationThread()) {
+                    Platform.runLater(() -> update(node));
+                    return;
+                }
+                Position position = node.getPosition();
+                markDirty((position.row() - 1) * gameManager.game.cols() + position.col() - 1);
             }
         };
 
@@ -118,49 +263,66 @@ public class GameController {
         for (int row = 1; row <= rows; row++) {
             for (int col = 1; col <= cols; col++) {
                 GameNode node = gameManager.game.node(new Position(row, col));
-                node.addObserver(uiObserver);
+                node.addWeakObserver(tileObserver);
             }
         }
     }
 
+    /**
+     * Marks a cell to be redrawn in the next frame.
+     *
+     * @param cell the row-major index of the cell
+     */
+    private void markDirty(int cell) {
+        dirtyCells.set(cell);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            tileRenderer.start();
+        }
+    }
+
+    /**
+     * Redraws every dirty cell once and stops the tile renderer until a cell gets dirty again.
+     */
+    private void flushDirtyTiles() {
+        int cols = gameManager.game.cols();
+        for (int i = dirtyCells.nextSetBit(0); i >= 0; i = dirtyCells.nextSetBit(i + 1)) {
+            updateTile(gameManager.game.node(new Position(i / cols + 1, i % cols + 1)));
+        }
+        dirtyCells.clear();
+        flushScheduled = false;
+        tileRenderer.stop();
+    }
+
     /**
      * Updates the tile's image and state based on the given game node.
      *
      * @param node the game node to reflect in the UI
      */
     private void updateTile(GameNode node) {
+        EngineEvents.TileRepaint event = new EngineEvents.TileRepaint();
+        event.begin();
+        long start = System.nanoTime();
+
         Position position = node.getPosition();
         int row = position.row();
         int col = position.col();
 
-        StackPane tile = null;
-        for (Node child : gameBoard.getChildren()) {
-            if (GridPane.getRowIndex(child) == row && GridPane.getColumnIndex(child) == col) {
-                if (child instanceof StackPane) {
-                    tile = (StackPane) child;
-                    break;
-                }
-            }
-        }
-
+        StackPane tile = tiles[(row - 1) * gameManager.game.cols() + col - 1];
         if (tile != null) {
-            tile.getChildren().removeIf(n -> n instanceof ImageView);
+            // The number label is created again below
+            tile.getChildren().removeIf(n -> n instanceof ImageView || n instanceof Label);
             var tileType = node.Type;
             String imagePath = getFile(node);
             if (imagePath != null) {
                 try {
                     var wireFile = getFileForWire(node);
-                    File file = new File("lib/resources" + imagePath);
-                    Image image = new Image(file.toURI().toString());
-                    ImageView imageView = new ImageView(image);
+                    ImageView imageView = new ImageView(ViewCache.image("lib/resources" + imagePath));
                     imageView.setFitWidth(tileType == GameNodeType.POWER && wireFile != null ? 32 : 64);
                     imageView.setFitHeight(tileType == GameNodeType.POWER && wireFile != null ? 32 : 64);
                     imageView.setPreserveRatio(true);
                     if (tileType == GameNodeType.POWER && wireFile  != null) {
-                        String backgroundImagePath = "lib/resources" + getFileForWire(node);
-                        File backgroundFile = new File(backgroundImagePath);
-                        Image backgroundImage = new Image(backgroundFile.toURI().toString());
-                        ImageView backgroundImageView = new ImageView(backgroundImage);
+                        ImageView backgroundImageView = new ImageView(ViewCache.image("lib/resources" + wireFile));
                         backgroundImageView.setFitWidth(64);
                         backgroundImageView.setFitHeight(64);
                         backgroundImageView.setPreserveRatio(true);
@@ -172,14 +334,21 @@ public class GameController {
                     System.err.println(e.getMessage());
                 }
             }
-            Label numberLabel = new Label(String.valueOf(gameManager.tracking.getCurrentStep(new Position(row,col))));
+            Label numberLabel = new Label(String.valueOf(gameManager.remainingTurns(new Position(row,col))));
             numberLabel.getStyleClass().add("number-label");
             //Ensures the label stays hidden
             numberLabel.setMinWidth(-100);
-            numberLabel.setVisible(false);
+            numberLabel.setVisible(showNumbers);
             tile.setUserData(numberLabel);
             tile.getChildren().add(numberLabel);
         }
+
+        repaintTime.record(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.row = row;
+            event.col = col;
+            event.commit();
+        }
     }
 
     /**
@@ -195,6 +364,8 @@ public class GameController {
 
         gameBoard.setHgap(2);
         gameBoard.setVgap(2);
+        tiles = new StackPane[rows * cols];
+        dirtyCells.clear();
 
         for (int row = 1; row <= rows; row++) {
             for (int col = 1; col <= cols; col++) {
@@ -210,6 +381,7 @@ public class GameController {
                     handleTileClick(r, c);
                 });
 
+                tiles[(row - 1) * cols + col - 1] = tile;
                 gameBoard.add(tile, col, row);
             }
         }
@@ -235,17 +407,12 @@ public class GameController {
             if (imagePath != null) {
                 try {
                     var wireFile = getFileForWire(node);
-                    File file = new File("lib/resources" + imagePath);
-                    Image image = new Image(file.toURI().toString());
-                    ImageView imageView = new ImageView(image);
+                    ImageView imageView = new ImageView(ViewCache.image("lib/resources" + imagePath));
                     imageView.setFitWidth(tileType == GameNodeType.POWER && wireFile != null ? 32 : 64);
                     imageView.setFitHeight(tileType == GameNodeType.POWER && wireFile != null ? 32 : 64);
                     imageView.setPreserveRatio(true);
                     if (tileType == GameNodeType.POWER && wireFile  != null) {
-                        String backgroundImagePath = "lib/resources" + getFileForWire(node);
-                        File backgroundFile = new File(backgroundImagePath);
-                        Image backgroundImage = new Image(backgroundFile.toURI().toString());
-                        ImageView backgroundImageView = new ImageView(backgroundImage);
+                        ImageView backgroundImageView = new ImageView(ViewCache.image("lib/resources" + wireFile));
                         backgroundImageView.setFitWidth(64);
                         backgroundImageView.setFitHeight(64);
                         backgroundImageView.setPreserveRatio(true);
@@ -259,7 +426,7 @@ public class GameController {
             }
         }
 
-        Label numberLabel = new Label(String.valueOf(gameManager.tracking.getCurrentStep(new Position(row,col))));
+        Label numberLabel = new Label(String.valueOf(gameManager.remainingTurns(new Position(row,col))));
         numberLabel.getStyleClass().add("number-label");
         //Ensures the label stays hidden
         numberLabel.setMinWidth(-100);
@@ -409,34 +576,7 @@ public class GameController {
     private void handleTileClick(int row, int col) {
         if(showNumbers)
             return;
-        GameNode node = gameManager.game.node(new Position(row, col));
-        Node tileNode = null;
-        for (Node child : gameBoard.getChildren()) {
-            if (GridPane.getRowIndex(child) == row && GridPane.getColumnIndex(child) == col) {
-                tileNode = child;
-                break;
-            }
-        }
-
-        if (tileNode instanceof StackPane tile) {
-
-            ImageView wireImageView = null;
-            for (Node child : tile.getChildren()) {
-                if (child instanceof ImageView) {
-                    wireImageView = (ImageView) child;
-                    break;
-                }
-            }
-
-            if (wireImageView != null) {
-                wireImageView.setRotate(wireImageView.getRotate() + 90);
-
-                if (wireImageView.getRotate() >= 360) {
-                    wireImageView.setRotate(0);
-                }
-            }
-        }
-
+        // The rotated tile is redrawn with the next frame, see markDirty
         boolean solved = gameManager.rotateNodeAndCheckResult(new Position(row, col));
 
         updateMoves();
@@ -485,24 +625,12 @@ public class GameController {
         timeline.stop();
 
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("Modals/WinDialog.fxml"));
-            Parent root = loader.load();
+            ViewCache.View<WinDialogController> dialog = ViewCache.get("Modals/WinDialog.fxml");
 
-            WinDialogController dialogController = loader.getController();
+            WinDialogController dialogController = dialog.controller();
             dialogController.setGameController(this);
             dialogController.setStats(formatTime(secondsElapsed), gameManager.tracking.getTotalClicks());
-
-            Scene scene = new Scene(root);
-            Stage dialogStage = new Stage();
-            dialogStage.setTitle("Vítězství!");
-            dialogStage.setScene(scene);
-            dialogStage.setResizable(false);
-
-            dialogStage.initModality(Modality.WINDOW_MODAL);
-            dialogStage.initOwner(gameBoard.getScene().getWindow());
-
-            dialogStage.showAndWait();
-
+            dialogController.show(gameBoard.getScene().getWindow(), dialog.scene());
         } catch (IOException e) {
             System.err.println(e.getMessage());
         }
@@ -527,6 +655,9 @@ public class GameController {
      */
     @FXML
     private void onPlayButtonClick(ActionEvent event) {
+        stopPlayback();
+        replayButton.setVisible(false);
+        speedBox.setVisible(false);
         timeline.play();
         gameManager.switchToLiveMode();
         canPlay = true;
@@ -534,6 +665,19 @@ public class GameController {
         playButton.setVisible(false);
     }
 
+    /**
+     * Toggles the metrics overlay with F3.
+     *
+     * @param event the key event
+     */
+    @FXML
+    private void onKeyPressed(KeyEvent event) {
+        if (event.getCode() == KeyCode.F3) {
+            metricsOverlay.toggle();
+            event.consume();
+        }
+    }
+
     /**
      * Handles returning from the game view to the main menu.
      */
@@ -541,10 +685,12 @@ public class GameController {
     private void onBackButtonClick() {
         try {
             timeline.stop();
-            Parent menuView = FXMLLoader.load(getClass().getResource("MainView.fxml"));
-            Scene menuScene = new Scene(menuView);
+            stopPlayback();
+            tileRenderer.stop();
+            metricsOverlay.hide();
+            gameManager.close();
             Stage window = (Stage) (gameBoard.getScene().getWindow());
-            window.setScene(menuScene);
+            window.setScene(ViewCache.get("MainView.fxml").scene());
             window.show();
         } catch (IOException e) {
             System.err.println(e.getMessage());
@@ -559,6 +705,7 @@ public class GameController {
     @FXML
     private void onUndoButtonClick(ActionEvent event) {
         timeline.stop();
+        stopPlayback();
         gameManager.undo();
         updateMoves();
         updateButtonStates();
@@ -571,13 +718,30 @@ public class GameController {
      */
     @FXML
     private void onRedoButtonClick(ActionEvent event) {
+        stopPlayback();
         gameManager.redo();
         updateMoves();
         updateButtonStates();
     }
 
     /**
-     * Toggles display of step hints (remaining rotations) over each tile.
+     * Starts or pauses automatic playback of the loaded game.
+     *
+     * @param event the action event
+     */
+    @FXML
+    private void onReplayButtonClick(ActionEvent event) {
+        if (playing) {
+            stopPlayback();
+        }
+        else {
+            startPlayback();
+        }
+    }
+
+    /**
+     * Toggles display of step hints (remaining rotations) over each tile
+     * and outlines the tiles with open connectors.
      *
      * @param event the action event
      */
@@ -587,17 +751,23 @@ public class GameController {
 
         int rows = gameManager.game.rows();
         int cols = gameManager.game.cols();
+        PowerNetwork network = gameManager.analyzeNetwork();
 
         for (int row = 0; row < rows + 1; row++) {
             for (int col = 0; col < cols + 1; col++) {
                 Node node = getNodeFromGridPane(gameBoard, col, row);
 
                 if (node instanceof StackPane tile) {
+                    // Tiles with a connector leading nowhere are outlined
+                    tile.getStyleClass().remove("open-connector-tile");
+                    if (showNumbers && network.openConnectors(new Position(row, col)) != 0) {
+                        tile.getStyleClass().add("open-connector-tile");
+                    }
                     for (Node tileChild : tile.getChildren()) {
                         if (tileChild instanceof Label numberLabel) {
                             numberLabel.setVisible(showNumbers);
                             //Plus one for the 1 based indexing of the game
-                            numberLabel.setText(gameManager.tracking.getCurrentStep(new Position(row,col)) + "");
+                            numberLabel.setText(gameManager.remainingTurns(new Position(row,col)) + "");
                         }
                     }
                 }
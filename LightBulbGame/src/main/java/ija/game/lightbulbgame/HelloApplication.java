@@ -7,29 +7,74 @@
 
 package ija.game.lightbulbgame;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 
 public class HelloApplication extends Application {
+    /**
+     * System property; when true, the application prints the time from the launch of the JVM
+     * to the first rendered frame and exits. Used for measuring and training the startup.
+     */
+    public static final String STARTUP_PROBE = "lightbulbgame.startupProbe";
+
+    /**
+     * Prefix of the line printed by the startup probe, followed by the time in milliseconds.
+     */
+    public static final String FIRST_FRAME = "First frame after ms: ";
+
     /**
      * Initializes and displays the primary stage of the application.
-     * Loads the main menu view from the FXML file.
+     * Loads the main menu view from the FXML file. The other views are loaded in the background
+     * once the menu has been rendered, so they do not delay it, and the first navigation
+     * to them does not wait for the FXML.
      *
      * @param stage the primary stage provided by the JavaFX runtime
      * @throws IOException if the FXML file cannot be loaded
      */
     @Override
     public void start(Stage stage) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(HelloApplication.class.getResource("MainView.fxml"));
-        Scene scene = new Scene(fxmlLoader.load(), 800, 800);
+        Scene scene = ViewCache.get("MainView.fxml").scene(800, 800);
         stage.setResizable(false);
         stage.setTitle("Light Bulb Game!");
         stage.setScene(scene);
         stage.show();
+
+        new AnimationTimer() {
+            private int pulses;
+
+            @Override
+            public void handle(long now) {
+                // The first frame is rendered at the end of the first pulse
+                if (++pulses < 2) {
+                    return;
+                }
+                stop();
+                onFirstFrame();
+            }
+        }.start();
+    }
+
+    /**
+     * Starts loading the remaining views and, with the startup probe, reports the startup time and exits.
+     */
+    private void onFirstFrame() {
+        ViewCache.preload("DifficultySelectorView.fxml", "Modals/WinDialog.fxml");
+        ViewCache.prepareFresh("GameView.fxml");
+
+        if (Boolean.getBoolean(STARTUP_PROBE)) {
+            long millis = ProcessHandle.current().info().startInstant()
+                    .map(start -> Duration.between(start, Instant.now()).toMillis())
+                    .orElse(-1L);
+            System.out.println(FIRST_FRAME + millis);
+            Platform.exit();
+        }
     }
 
     /**
@@ -9,10 +9,7 @@ package ija.game.lightbulbgame;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
@@ -27,11 +24,8 @@ public class MainController {
     @FXML
     protected void onNewGameButtonClick(ActionEvent event) {
         try {
-            Parent difficultyView = FXMLLoader.load(getClass().getResource("DifficultySelectorView.fxml"));
-            Scene difficultyScene = new Scene(difficultyView);
-
             Stage window = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            window.setScene(difficultyScene);
+            window.setScene(ViewCache.get("DifficultySelectorView.fxml").scene());
             window.show();
         } catch (IOException e) {
             System.err.println(e.getMessage());
@@ -47,14 +41,11 @@ public class MainController {
     @FXML
     protected void onLoadGameButtonClick(ActionEvent event) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("GameView.fxml"));
-            Parent root = loader.load();
-
-            GameController controller = loader.getController();
-            controller.setDifficulty(1, false);
+            ViewCache.View<GameController> view = ViewCache.fresh("GameView.fxml");
+            view.controller().setDifficulty(1, false);
 
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setScene(new Scene(root));
+            stage.setScene(view.scene());
             stage.show();
         } catch (IOException e) {
             System.err.println(e.getMessage());
@@ -0,0 +1,197 @@
+/**
+ * IJA Project
+ * @author Bedřich Petrášek (xpetra31)
+ * @Description Overlay of the game view showing the cost of a frame, toggled by F3.
+ *              Every frame takes the difference of the totals of the engine and render metrics
+ *              (see GameMetrics.Metrics) since the previous frame; twice a second the averages
+ *              and maxima per frame are shown.
+ *              The engine cost is the propagation of the power and the writing of the log,
+ *              which also make up most of a rotation; the render cost is the redrawing of tiles
+ *              and the layout pass of the scene.
+ */
+
+package ija.game.lightbulbgame;
+
+import GameMetrics.Histogram;
+import GameMetrics.Metrics;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+
+public class MetricsOverlay {
+    private static final long REFRESH_NANOS = 500_000_000L;
+
+    private final Label label;
+    private final Histogram rotate = Metrics.histogram(Metrics.ROTATE);
+    private final Histogram propagate = Metrics.histogram(Metrics.PROPAGATE);
+    private final Histogram logWrite = Metrics.histogram(Metrics.LOG_WRITE);
+    private final Histogram tiles = Metrics.histogram(Metrics.TILE_REPAINT);
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            onFrame(now);
+        }
+    };
+
+    private Scene scene;
+    private long layoutStarted;
+    private long layoutNanos;
+    private final Runnable layoutStart = () -> layoutStarted = System.nanoTime();
+    private final Runnable layoutEnd = () -> layoutNanos += System.nanoTime() - layoutStarted;
+
+    // Totals at the previous frame
+    private long lastFrame = -1;
+    private long lastRotations;
+    private long lastPropagate;
+    private long lastLogWrite;
+    private long lastTiles;
+
+    // Sums and maxima per frame since the last refresh of the label
+    private long windowStart;
+    private int frames;
+    private long rotations;
+    private long frameSum;
+    private long propagateSum;
+    private long logWriteSum;
+    private long engineSum;
+    private long engineMax;
+    private long tilesSum;
+    private long layoutSum;
+    private long renderSum;
+    private long renderMax;
+
+    /**
+     * Creates an overlay writing into a label of the view.
+     *
+     * @param label the label showing the metrics
+     */
+    public MetricsOverlay(Label label) {
+        this.label = label;
+    }
+
+    /**
+     * Shows the overlay if hidden, hides it otherwise.
+     */
+    public void toggle() {
+        if (label.isVisible()) {
+            hide();
+        }
+        else {
+            show();
+        }
+    }
+
+    /**
+     * Starts measuring and shows the overlay.
+     */
+    public void show() {
+        if (label.isVisible() || label.getScene() == null) {
+            return;
+        }
+        scene = label.getScene();
+        scene.addPreLayoutPulseListener(layoutStart);
+        scene.addPostLayoutPulseListener(layoutEnd);
+        lastFrame = -1;
+        label.setText("Měření…");
+        label.setVisible(true);
+        timer.start();
+    }
+
+    /**
+     * Stops measuring and hides the overlay.
+     */
+    public void hide() {
+        if (!label.isVisible()) {
+            return;
+        }
+        timer.stop();
+        scene.removePreLayoutPulseListener(layoutStart);
+        scene.removePostLayoutPulseListener(layoutEnd);
+        scene = null;
+        label.setVisible(false);
+    }
+
+    /**
+     * Adds the costs since the previous frame to the window and refreshes the label
+     * once the window is long enough.
+     *
+     * @param now the time of the frame in nanoseconds
+     */
+    private void onFrame(long now) {
+        long rotationTotal = rotate.count();
+        long propagateTotal = propagate.total();
+        long logWriteTotal = logWrite.total();
+        long tilesTotal = tiles.total();
+
+        if (lastFrame < 0) {
+            windowStart = now;
+            resetWindow();
+        }
+        else {
+            long propagateNanos = propagateTotal - lastPropagate;
+            long logWriteNanos = logWriteTotal - lastLogWrite;
+            long tilesNanos = tilesTotal - lastTiles;
+            long engine = propagateNanos + logWriteNanos;
+            long render = tilesNanos + layoutNanos;
+
+            frames++;
+            rotations += rotationTotal - lastRotations;
+            frameSum += now - lastFrame;
+            propagateSum += propagateNanos;
+            logWriteSum += logWriteNanos;
+            engineSum += engine;
+            engineMax = Math.max(engineMax, engine);
+            tilesSum += tilesNanos;
+            layoutSum += layoutNanos;
+            renderSum += render;
+            renderMax = Math.max(renderMax, render);
+
+            if (now - windowStart >= REFRESH_NANOS) {
+                label.setText(describeWindow());
+                windowStart = now;
+                resetWindow();
+            }
+        }
+
+        layoutNanos = 0;
+        lastFrame = now;
+        lastRotations = rotationTotal;
+        lastPropagate = propagateTotal;
+        lastLogWrite = logWriteTotal;
+        lastTiles = tilesTotal;
+    }
+
+    private String describeWindow() {
+        double frame = millis(frameSum / frames);
+        return String.format(
+                "Snímek: %.1f ms (%.0f fps), otočení: %d%n"
+                        + "Jádro: %.3f ms/snímek, max %.3f ms%n"
+                        + "  šíření %.3f, zápis logu %.3f%n"
+                        + "Vykreslení: %.3f ms/snímek, max %.3f ms%n"
+                        + "  dlaždice %.3f, layout %.3f",
+                frame, frame > 0 ? 1000 / frame : 0, rotations,
+                millis(engineSum / frames), millis(engineMax),
+                millis(propagateSum / frames), millis(logWriteSum / frames),
+                millis(renderSum / frames), millis(renderMax),
+                millis(tilesSum / frames), millis(layoutSum / frames));
+    }
+
+    private void resetWindow() {
+        frames = 0;
+        rotations = 0;
+        frameSum = 0;
+        propagateSum = 0;
+        logWriteSum = 0;
+        engineSum = 0;
+        engineMax = 0;
+        tilesSum = 0;
+        layoutSum = 0;
+        renderSum = 0;
+        renderMax = 0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * IJA Project
+ * @author Bedřich Petrášek (xpetra31)
+ * @Description Cache of the application's views and images.
+ *              Stateless screens (menu, difficulty selection, win dialog) are loaded from FXML once
+ *              and their nodes, controllers and scenes are reused on every navigation.
+ *              The game view is loaded fresh for every game, but always one copy is parsed ahead
+ *              in the background, so starting a game does not wait for the FXML either.
+ *              Views can be preloaded in the background at startup; nodes may be built off the
+ *              JavaFX application thread, scenes are created on first use on that thread.
+ */
+
+package ija.game.lightbulbgame;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class ViewCache {
+    private static final Map<String, CompletableFuture<View<?>>> views = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<View<?>>> spares = new ConcurrentHashMap<>();
+    private static final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    private static final ExecutorService preloader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "view-preloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A loaded view: its root node, its controller and the scene showing it.
+     *
+     * @param <C> the type of the controller
+     */
+    public static final class View<C> {
+        private final Parent root;
+        private final C controller;
+        private Scene scene;
+
+        private View(Parent root, C controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent root() {
+            return root;
+        }
+
+        public C controller() {
+            return controller;
+        }
+
+        /**
+         * Returns the scene of the view, created on the first call.
+         * Must be called on the JavaFX application thread.
+         *
+         * @return the scene showing the root of the view
+         */
+        public Scene scene() {
+            if (scene == null) {
+                scene = new Scene(root);
+            }
+            return scene;
+        }
+
+        /**
+         * Returns the scene of the view, created on the first call with the given size.
+         * Must be called on the JavaFX application thread.
+         *
+         * @param width the width of the scene if it is created
+         * @param height the height of the scene if it is created
+         * @return the scene showing the root of the view
+         */
+        public Scene scene(double width, double height) {
+            if (scene == null) {
+                scene = new Scene(root, width, height);
+            }
+            return scene;
+        }
+    }
+
+    private ViewCache() {
+    }
+
+    /**
+     * Starts loading views in the background, so that their first use does not wait.
+     *
+     * @param names the FXML files relative to this package
+     */
+    public static void preload(String... names) {
+        for (String name : names) {
+            views.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> loadUnchecked(n), preloader));
+        }
+    }
+
+    /**
+     * Starts parsing a spare copy of a view that is used once per screen, e.g. the game view.
+     *
+     * @param name the FXML file relative to this package
+     */
+    public static void prepareFresh(String name) {
+        spares.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> loadUnchecked(n), preloader));
+    }
+
+    /**
+     * Returns the shared instance of a view, loading it on the first call.
+     * If the view is being preloaded, waits for the preload to finish.
+     *
+     * @param name the FXML file relative to this package
+     * @param <C> the type of the controller
+     * @return the cached view
+     * @throws IOException if the FXML cannot be loaded
+     */
+    public static <C> View<C> get(String name) throws IOException {
+        CompletableFuture<View<?>> future = views.get(name);
+        if (future == null) {
+            future = CompletableFuture.completedFuture(load(name));
+            views.putIfAbsent(name, future);
+            future = views.get(name);
+        }
+        return await(name, future);
+    }
+
+    /**
+     * Returns a new instance of a view with its own controller, taking the spare copy
+     * parsed ahead if there is one, and starts parsing the next spare copy.
+     *
+     * @param name the FXML file relative to this package
+     * @param <C> the type of the controller
+     * @return a view used by no one else
+     * @throws IOException if the FXML cannot be loaded
+     */
+    public static <C> View<C> fresh(String name) throws IOException {
+        CompletableFuture<View<?>> spare = spares.remove(name);
+        View<C> view = spare != null ? await(name, spare) : load(name);
+        prepareFresh(name);
+        return view;
+    }
+
+    /**
+     * Returns a decoded image file, decoding it on the first call.
+     *
+     * @param path the path of the image file
+     * @return the shared image
+     */
+    public static Image image(String path) {
+        return images.computeIfAbsent(path, p -> new Image(new File(p).toURI().toString()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> View<C> await(String name, CompletableFuture<View<?>> future) throws IOException {
+        try {
+            return (View<C>) future.join();
+        } catch (CompletionException e) {
+            // A failed load is not cached, the next call tries again
+            views.remove(name, future);
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static <C> View<C> load(String name) throws IOException {
+        FXMLLoader loader = new FXMLLoader(ViewCache.class.getResource(name));
+        Parent root = loader.load();
+        return new View<>(root, loader.getController());
+    }
+
+    private static View<?> loadUnchecked(String name) {
+        try {
+            return load(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -8,13 +8,14 @@
 package ija.game.lightbulbgame;
 
 import javafx.fxml.FXML;
+import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.scene.layout.VBox;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import java.io.File;
+import javafx.stage.Window;
 
 public class WinDialogController {
     @FXML
@@ -26,8 +27,12 @@ public class WinDialogController {
     @FXML
     private VBox imageContainer;
 
+    // Set only while the dialog is shown, the cached dialog must not keep a finished game alive
     private GameController gameController;
 
+    // The dialog is loaded once and shown again after every win, see ViewCache
+    private Stage dialogStage;
+
     /**
      * Initializes the win dialog by loading and displaying a bulb image.
      * Called automatically after FXML loading.
@@ -35,9 +40,7 @@ public class WinDialogController {
     @FXML
     public void initialize() {
         try {
-            File file = new File("lib/resources/LightBulbOn.png");
-            Image image = new Image(file.toURI().toString());
-            ImageView imageView = new ImageView(image);
+            ImageView imageView = new ImageView(ViewCache.image("lib/resources/LightBulbOn.png"));
             imageView.setFitHeight(64);
             imageView.setFitWidth(64);
             imageView.setPreserveRatio(true);
@@ -52,7 +55,7 @@ public class WinDialogController {
 
     /**
      * Injects the reference to the parent game controller.
-     * Used to return to the main menu if requested.
+     * Used to return to the main menu if requested; the reference is dropped when the dialog closes.
      *
      * @param controller the game controller to return to
      */
@@ -70,15 +73,43 @@ public class WinDialogController {
         statsLabel.setText("Čas: " + time + ", Počet tahů: " + moves);
     }
 
+    /**
+     * Shows the dialog as a modal window over the game and waits until it is closed.
+     * The window is created once per owner; the owner of a window cannot change,
+     * so a new game window gets a new dialog window with the same scene.
+     *
+     * @param owner the window of the game
+     * @param scene the scene of the dialog
+     */
+    public void show(Window owner, Scene scene) {
+        if (dialogStage == null || dialogStage.getOwner() != owner) {
+            if (dialogStage != null) {
+                dialogStage.setScene(null);
+            }
+            dialogStage = new Stage();
+            dialogStage.setTitle("Vítězství!");
+            dialogStage.setResizable(false);
+            dialogStage.initModality(Modality.WINDOW_MODAL);
+            dialogStage.initOwner(owner);
+        }
+        dialogStage.setScene(scene);
+        try {
+            dialogStage.showAndWait();
+        } finally {
+            gameController = null;
+        }
+    }
+
     /**
      * Handles the click on the "Main Menu" button.
      * Closes the dialog and switches back to the main menu.
      */
     @FXML
     public void onMainMenu() {
+        GameController controller = gameController;
         closeDialog();
-        if (gameController != null) {
-            gameController.goToMainMenu();
+        if (controller != null) {
+            controller.goToMainMenu();
         }
     }
 
@@ -1,16 +1,19 @@
 module ija.game.lightbulbgame {
     requires javafx.controls;
     requires javafx.fxml;
-    requires javafx.web;
-
-    requires org.controlsfx.controls;
-    requires com.dlsc.formsfx;
-    requires net.synedra.validatorfx;
-    requires org.kordamp.ikonli.javafx;
-    requires org.kordamp.bootstrapfx.core;
-    requires eu.hansolo.tilesfx;
-    requires com.almasb.fxgl.all;
     requires ijatool;
+    requires jdk.jfr;
+
+    // Not used by the game itself. Declared static, so they are not resolved, and their
+    // jars not opened, at startup; add them with --add-modules when needed at run time.
+    requires static javafx.web;
+    requires static org.controlsfx.controls;
+    requires static com.dlsc.formsfx;
+    requires static net.synedra.validatorfx;
+    requires static org.kordamp.ikonli.javafx;
+    requires static org.kordamp.bootstrapfx.core;
+    requires static eu.hansolo.tilesfx;
+    requires static com.almasb.fxgl.all;
 
     opens ija.game.lightbulbgame to javafx.fxml;
     exports ija.game.lightbulbgame;
@@ -0,0 +1,155 @@
+package GameLogic.Game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import GameLogic.Common.Position;
+import GameLogic.Common.Side;
+
+// Cross-checks the dynamic connectivity against breadth-first search over random insertions and deletions
+public class DynamicConnectivityTest {
+    @Test
+    public void agreesWithBreadthFirstSearch()
+    {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++)
+        {
+            int vertices = 2 + random.nextInt(30);
+            int edges = 1 + random.nextInt(3 * vertices);
+            int[] u = new int[edges];
+            int[] v = new int[edges];
+            for (int e = 0; e < edges; e++)
+            {
+                u[e] = random.nextInt(vertices);
+                do
+                {
+                    v[e] = random.nextInt(vertices);
+                } while (v[e] == u[e]);
+            }
+
+            DynamicConnectivity connectivity = new DynamicConnectivity(vertices, edges);
+            boolean[] present = new boolean[edges];
+            for (int step = 0; step < 400; step++)
+            {
+                int e = random.nextInt(edges);
+                if (present[e])
+                    connectivity.delete(e);
+                else
+                    connectivity.insert(e, u[e], v[e]);
+                present[e] = !present[e];
+
+                int[] component = components(vertices, u, v, present);
+                for (int a = 0; a < vertices; a++)
+                {
+                    int b = random.nextInt(vertices);
+                    assertEquals(component[a] == component[b], connectivity.connected(a, b),
+                            "round " + round + ", step " + step + ", vertices " + a + " and " + b);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void poweredCellsAgreeWithPowerNetwork()
+    {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++)
+        {
+            int rows = 2 + random.nextInt(6);
+            int cols = 2 + random.nextInt(6);
+            Game game = randomBoard(rows, cols, random);
+            game.enableDynamicConnectivity();
+
+            for (int step = 0; step < 40; step++)
+            {
+                game.node(new Position(random.nextInt(rows) + 1, random.nextInt(cols) + 1)).turn();
+                PowerNetwork network = PowerNetwork.of(game);
+                for (int r = 1; r <= rows; r++)
+                {
+                    for (int c = 1; c <= cols; c++)
+                    {
+                        Position p = new Position(r, c);
+                        assertEquals(network.isPowered(p), game.isPowered(p),
+                                "round " + round + ", step " + step + ", cell " + p);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Game randomBoard(int rows, int cols, Random random)
+    {
+        Side[] sides = Side.values();
+        Game game = Game.create(rows, cols);
+        for (int r = 1; r <= rows; r++)
+        {
+            for (int c = 1; c <= cols; c++)
+            {
+                Position p = new Position(r, c);
+                int kind = random.nextInt(10);
+                if (kind == 0)
+                    game.createPowerNode(p, sides[random.nextInt(4)], sides[random.nextInt(4)]);
+                else if (kind < 3)
+                    game.createBulbNode(p, sides[random.nextInt(4)]);
+                else
+                {
+                    List<Side> wires = new ArrayList<>();
+                    for (Side side : sides)
+                    {
+                        if (random.nextBoolean())
+                            wires.add(side);
+                    }
+                    if (wires.size() < 2)
+                        wires = List.of(sides[0], sides[2]);
+                    game.createLinkNode(p, wires.toArray(new Side[0]));
+                }
+            }
+        }
+        return game;
+    }
+
+    private static int[] components(int vertices, int[] u, int[] v, boolean[] present)
+    {
+        List<List<Integer>> adjacent = new ArrayList<>();
+        for (int i = 0; i < vertices; i++)
+            adjacent.add(new ArrayList<>());
+        for (int e = 0; e < present.length; e++)
+        {
+            if (present[e])
+            {
+                adjacent.get(u[e]).add(v[e]);
+                adjacent.get(v[e]).add(u[e]);
+            }
+        }
+        int[] component = new int[vertices];
+        Arrays.fill(component, -1);
+        for (int start = 0; start < vertices; start++)
+        {
+            if (component[start] >= 0)
+                continue;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(start);
+            component[start] = start;
+            while (!queue.isEmpty())
+            {
+                int x = queue.poll();
+                for (int y : adjacent.get(x))
+                {
+                    if (component[y] < 0)
+                    {
+                        component[y] = start;
+                        queue.add(y);
+                    }
+                }
+            }
+        }
+        return component;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures the bit-parallel propagation kernel alone, as used by solvers
+ *              that evaluate candidate boards without GameNode objects.
+ */
+
+package Benchmarks;
+
+import GameLogic.Game.BitboardPropagation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitboardPropagationBenchmark {
+    /**
+     * Board edge length.
+     */
+    @Param({"10", "50", "250", "1000"})
+    public int size;
+
+    private BitboardPropagation propagation;
+    private long[] sources;
+
+    /**
+     * Loads the comb board of GenerateGameService.generateBySize into the bitboards
+     * and rotates a random part of it. The masks are built directly, as the Game
+     * of a large board would take long to trace while being built.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        propagation = new BitboardPropagation(size, size);
+        sources = new long[(size * size + 63) >>> 6];
+        BitboardPropagation.set(sources, 0);
+
+        Random rand = new Random(42);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int mask;
+                if (r == 0) {
+                    mask = c == 0 ? 0b0110 : c == size - 1 ? 0b1100 : 0b1110;
+                }
+                else {
+                    mask = r == size - 1 ? 0b0001 : 0b0101;
+                }
+                if (rand.nextInt(size) == 0) {
+                    mask = ((mask << 1) | (mask >>> 3)) & 0xF;
+                }
+                propagation.setCell(r * size + c, mask);
+            }
+        }
+    }
+
+    /**
+     * Floods the board from the power node to a fixed point.
+     *
+     * @return the lit cells
+     */
+    @Benchmark
+    public long[] propagate() {
+        return propagation.propagate(sources);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures solving and uniqueness checks of GenerateGameService boards
+ *              with the embedded CDCL solver.
+ */
+
+package Benchmarks;
+
+import GameLogic.Game.Game;
+import GameManager.GenerateGameService;
+import GameSolver.BoardSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSolverBenchmark {
+    /**
+     * The board: a difficulty 1–3, or "comb-N" for the synthetic N×N board of generateBySize.
+     */
+    @Param({"3", "comb-20", "comb-50"})
+    public String board;
+
+    private Game game;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (board.startsWith("comb-")) {
+            int size = Integer.parseInt(board.substring(5));
+            game = GenerateGameService.generateBySize(size, size);
+        }
+        else {
+            game = GenerateGameService.generateByDifficulty(Integer.parseInt(board));
+        }
+    }
+
+    /**
+     * Encodes the board and finds a solution.
+     *
+     * @return the solution
+     */
+    @Benchmark
+    public int[] solve() {
+        return new BoardSolver(game).solve();
+    }
+
+    /**
+     * Encodes the board and proves that it has exactly one solution.
+     *
+     * @return whether the solution is unique
+     */
+    @Benchmark
+    public boolean uniqueness() {
+        return BoardSolver.hasUniqueSolution(game);
+    }
+}
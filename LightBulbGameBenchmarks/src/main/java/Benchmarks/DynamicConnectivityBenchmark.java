@@ -0,0 +1,99 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Compares answering "is this cell powered" after every rotation with the
+ *              dynamic connectivity structure against flooding the whole board again.
+ */
+
+package Benchmarks;
+
+import GameLogic.Game.BitboardPropagation;
+import GameLogic.Game.DynamicPowerGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicConnectivityBenchmark {
+    /**
+     * Board edge length.
+     */
+    @Param({"100", "300", "1000"})
+    public int size;
+
+    private byte[] masks;
+    private long[] sources;
+    private DynamicPowerGrid grid;
+    private BitboardPropagation propagation;
+    private Random rand;
+
+    /**
+     * Builds the comb board of GenerateGameService.generateBySize directly from masks,
+     * as the Game of a large board would take long to trace while being built.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        int cells = size * size;
+        masks = new byte[cells];
+        sources = new long[(cells + 63) >>> 6];
+        BitboardPropagation.set(sources, 0);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int mask;
+                if (r == 0) {
+                    mask = c == 0 ? 0b0110 : c == size - 1 ? 0b1100 : 0b1110;
+                }
+                else {
+                    mask = r == size - 1 ? 0b0001 : 0b0101;
+                }
+                masks[r * size + c] = (byte) mask;
+            }
+        }
+        grid = new DynamicPowerGrid(size, size, masks, sources);
+        propagation = new BitboardPropagation(size, size);
+        propagation.setCells(masks);
+        rand = new Random(42);
+    }
+
+    /**
+     * Rotates a random cell, asks whether another random cell is powered
+     * and rotates the first cell back. The first rotations raise the levels of
+     * many edges, which the later ones no longer pay for, hence the longer warmup.
+     *
+     * @return whether the queried cell was powered
+     */
+    @Benchmark
+    public boolean dynamicConnectivity() {
+        int cell = rand.nextInt(masks.length);
+        int query = rand.nextInt(masks.length);
+        grid.setCell(cell, rotate(masks[cell]));
+        boolean powered = grid.isPowered(query);
+        grid.setCell(cell, masks[cell]);
+        return powered;
+    }
+
+    /**
+     * The same operation answered by flooding the board from the power node.
+     *
+     * @return whether the queried cell was powered
+     */
+    @Benchmark
+    public boolean fullPropagation() {
+        int cell = rand.nextInt(masks.length);
+        int query = rand.nextInt(masks.length);
+        propagation.setCell(cell, rotate(masks[cell]));
+        boolean powered = BitboardPropagation.isSet(propagation.propagate(sources), query);
+        propagation.setCell(cell, masks[cell]);
+        return powered;
+    }
+
+    private static int rotate(int mask) {
+        return ((mask << 1) | (mask >>> 3)) & 0xF;
+    }
+}
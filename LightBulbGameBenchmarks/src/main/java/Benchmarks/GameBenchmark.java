@@ -0,0 +1,66 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures a full circuit update on synthetic boards of increasing size,
+ *              with either propagation engine of Game.
+ */
+
+package Benchmarks;
+
+import GameLogic.Common.Position;
+import GameLogic.Game.Game;
+import GameLogic.Game.PropagationEngine;
+import GameManager.GenerateGameService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    /**
+     * Board edge length. Larger boards (up to 1000) can be selected with -p size=...;
+     * every light change currently triggers a nested circuit update, so the cost grows quadratically.
+     */
+    @Param({"5", "10", "25", "50"})
+    public int size;
+
+    /**
+     * Propagation engine used by updateGame.
+     */
+    @Param({"PATH_FIND", "BITBOARD"})
+    public PropagationEngine engine;
+
+    private Game game;
+
+    /**
+     * Builds a solved board and rotates a random part of it,
+     * so that the circuit is only partially lit.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        game = GenerateGameService.generateBySize(size, size);
+
+        Random rand = new Random(42);
+        for (int i = 0; i < size; i++) {
+            game.node(new Position(rand.nextInt(size) + 1, rand.nextInt(size) + 1)).turn();
+        }
+        game.setPropagationEngine(engine);
+    }
+
+    /**
+     * Recomputes which nodes are powered.
+     *
+     * @return the updated game
+     */
+    @Benchmark
+    public Game updateGame() {
+        game.updateGame();
+        return game;
+    }
+}
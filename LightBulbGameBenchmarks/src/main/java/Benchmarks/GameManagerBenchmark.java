@@ -0,0 +1,102 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures the game manager operations used during gameplay:
+ *              a logged user rotation, an undo/redo pair and creating a shuffled game.
+ *              The game is logged to a temporary file.
+ */
+
+package Benchmarks;
+
+import GameLogic.Common.Position;
+import GameManager.GameLogger;
+import GameManager.GameManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameManagerBenchmark {
+    /**
+     * Difficulty level (1 = Easy 5×5, 2 = Medium 7×7, 3 = Hard 9×9).
+     */
+    @Param({"1", "2", "3"})
+    public int difficulty;
+
+    private GameLogger logger;
+    private GameManager manager;
+    private Position[] positions;
+    private int next;
+
+    /**
+     * Creates the temporary log file.
+     *
+     * @throws IOException if the file cannot be created
+     */
+    @Setup(Level.Trial)
+    public void createLog() throws IOException {
+        File logFile = File.createTempFile("lightbulb-bench", ".log");
+        logFile.deleteOnExit();
+        logger = new GameLogger(logFile);
+    }
+
+    /**
+     * Creates a new game and a fixed sequence of positions to click.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        manager = new GameManager(difficulty, true, logger);
+
+        int rows = manager.game.rows();
+        int cols = manager.game.cols();
+        Random rand = new Random(42);
+        positions = new Position[1024];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new Position(rand.nextInt(rows) + 1, rand.nextInt(cols) + 1);
+        }
+        next = 0;
+
+        manager.rotateNodeAndCheckResult(positions[0]);
+    }
+
+    /**
+     * Rotates a node as a user click, including the log file append and the win check.
+     *
+     * @return true if the board was solved by the move
+     */
+    @Benchmark
+    public boolean rotateNodeAndCheckResult() {
+        next = (next + 1) & (positions.length - 1);
+        return manager.rotateNodeAndCheckResult(positions[next]);
+    }
+
+    /**
+     * Undoes and redoes the last move.
+     *
+     * @return the manager after the redo
+     */
+    @Benchmark
+    public GameManager undoRedo() {
+        manager.undo();
+        manager.redo();
+        return manager;
+    }
+
+    /**
+     * Generates, shuffles and logs a new game.
+     *
+     * @return the created manager
+     */
+    @Benchmark
+    public GameManager createShuffledGame() {
+        return new GameManager(difficulty, true, logger);
+    }
+}
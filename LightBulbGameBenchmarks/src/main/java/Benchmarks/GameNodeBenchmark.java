@@ -0,0 +1,50 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures the cost of rotating a single node.
+ *              The node is standalone, so no circuit update is triggered.
+ */
+
+package Benchmarks;
+
+import GameLogic.Common.GameNode;
+import GameLogic.Common.GameNodeType;
+import GameLogic.Common.Position;
+import GameLogic.Common.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameNodeBenchmark {
+    private GameNode node;
+
+    /**
+     * Creates a T-shaped link node.
+     */
+    @Setup
+    public void setup() {
+        node = new GameNode();
+        node.position = new Position(1, 1);
+        node.Type = GameNodeType.LINK;
+        node.setConnectorSide(Side.EAST);
+        node.setConnectorSide(Side.WEST);
+        node.setConnectorSide(Side.SOUTH);
+    }
+
+    /**
+     * Rotates the node once.
+     *
+     * @return the rotated node
+     */
+    @Benchmark
+    public GameNode turn() {
+        node.turn();
+        return node;
+    }
+}
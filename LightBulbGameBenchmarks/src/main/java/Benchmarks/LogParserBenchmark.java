@@ -0,0 +1,179 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures the parse throughput of large game logs in MB/s (the "megabytes" counter).
+ *              The byte-level parser is run on a journal and on a plain log of older versions;
+ *              the regular expression matching of the former loader serves as a baseline.
+ */
+
+package Benchmarks;
+
+import GameLogic.Common.GameNode;
+import GameLogic.Common.Position;
+import GameManager.GameJournal;
+import GameManager.GameLogParser;
+import GameManager.GameLogger;
+import GameManager.GameManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LogParserBenchmark {
+    /**
+     * Number of user turns in the synthetic log.
+     */
+    @Param({"1000000"})
+    public int turns;
+
+    private ByteBuffer journal;
+    private ByteBuffer plain;
+    private String[] plainLines;
+
+    /**
+     * Counts the parsed megabytes; JMH reports the counter per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public double megabytes;
+    }
+
+    /**
+     * Handler consuming every record so that no parsing work is eliminated.
+     */
+    private static final class Consumer implements GameLogParser.Handler {
+        private final Blackhole blackhole;
+
+        Consumer(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void size(int rows, int cols) {
+            blackhole.consume(rows + cols);
+        }
+
+        @Override
+        public void node(int type, int row, int col, int mask) {
+            blackhole.consume(type + row + col + mask);
+        }
+
+        @Override
+        public void endInitialState() {
+        }
+
+        @Override
+        public void turn(int row, int col, int mask) {
+            blackhole.consume(row + col + mask);
+        }
+
+        @Override
+        public void undo() {
+        }
+
+        @Override
+        public void redo() {
+        }
+
+        @Override
+        public void jump(int node) {
+            blackhole.consume(node);
+        }
+    }
+
+    /**
+     * Generates a journal with a hard game followed by random user turns and a plain copy of it.
+     *
+     * @throws IOException if writing the log fails
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        File logFile = File.createTempFile("lightbulb-parse", ".log");
+        logFile.deleteOnExit();
+
+        GameManager manager = new GameManager(3, true, new GameLogger(logFile));
+        manager.close();
+        int rows = manager.game.rows();
+        int cols = manager.game.cols();
+        Random rand = new Random(42);
+
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < turns; i++) {
+            GameNode node = manager.game.node(new Position(rand.nextInt(rows) + 1, rand.nextInt(cols) + 1));
+            node.turn();
+            records.add("TURN " + node);
+            if (records.size() == 100_000 || i == turns - 1) {
+                GameJournal.appendToSegment(logFile.toPath(), records);
+                records.clear();
+            }
+        }
+
+        journal = ByteBuffer.wrap(Files.readAllBytes(logFile.toPath()));
+        List<String> lines = GameJournal.read(logFile.toPath());
+        plainLines = lines.toArray(new String[0]);
+        plain = ByteBuffer.wrap((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the journal including the checksum of every record.
+     *
+     * @param throughput the megabyte counter
+     * @param blackhole the consumer of parsed values
+     * @return the length of the valid part
+     */
+    @Benchmark
+    public int journal(Throughput throughput, Blackhole blackhole) {
+        throughput.megabytes += journal.limit() / 1e6;
+        return GameLogParser.parse(journal, new Consumer(blackhole));
+    }
+
+    /**
+     * Parses the same records in a log without checksums.
+     *
+     * @param throughput the megabyte counter
+     * @param blackhole the consumer of parsed values
+     * @return the length of the valid part
+     */
+    @Benchmark
+    public int plain(Throughput throughput, Blackhole blackhole) {
+        throughput.megabytes += plain.limit() / 1e6;
+        return GameLogParser.parse(plain, new Consumer(blackhole));
+    }
+
+    /**
+     * Matches the TURN lines with the regular expression of the former loader,
+     * without even building the side sets.
+     *
+     * @param throughput the megabyte counter
+     * @param blackhole the consumer of parsed values
+     */
+    @Benchmark
+    public void regexBaseline(Throughput throughput, Blackhole blackhole) {
+        throughput.megabytes += plain.limit() / 1e6;
+        Pattern pattern = Pattern.compile("\\{(\\w)\\[(\\d+)@(\\d+)]\\[([A-Z,]*)]}");
+        for (String line : plainLines) {
+            if (!line.startsWith("TURN")) continue;
+            Matcher m = pattern.matcher(line.substring(5));
+            if (m.matches()) {
+                blackhole.consume(Integer.parseInt(m.group(2)) + Integer.parseInt(m.group(3)));
+            }
+        }
+    }
+}
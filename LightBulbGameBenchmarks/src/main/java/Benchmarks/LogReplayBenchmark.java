@@ -0,0 +1,77 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures loading a game from the log file.
+ *              A synthetic log with the given number of user turns is generated before the run.
+ */
+
+package Benchmarks;
+
+import GameLogic.Common.GameNode;
+import GameLogic.Common.Position;
+import GameManager.GameJournal;
+import GameManager.GameLogger;
+import GameManager.GameManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LogReplayBenchmark {
+    /**
+     * Number of user turns in the synthetic log.
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int turns;
+
+    private GameLogger logger;
+
+    /**
+     * Writes a temporary log containing a hard game followed by random user turns.
+     *
+     * @throws IOException if writing the log fails
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        File logFile = File.createTempFile("lightbulb-replay", ".log");
+        logFile.deleteOnExit();
+        logger = new GameLogger(logFile);
+
+        GameManager manager = new GameManager(3, true, logger);
+        manager.close();
+        int rows = manager.game.rows();
+        int cols = manager.game.cols();
+        Random rand = new Random(42);
+
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < turns; i++) {
+            GameNode node = manager.game.node(new Position(rand.nextInt(rows) + 1, rand.nextInt(cols) + 1));
+            node.turn();
+            records.add("TURN " + node);
+            if (records.size() == 100_000 || i == turns - 1) {
+                GameJournal.appendToSegment(logFile.toPath(), records);
+                records.clear();
+            }
+        }
+    }
+
+    /**
+     * Reconstructs the game and replays every logged turn.
+     *
+     * @return the loaded manager
+     */
+    @Benchmark
+    public GameManager loadFromLogAndRecreateGame() {
+        return new GameManager(1, false, logger);
+    }
+}
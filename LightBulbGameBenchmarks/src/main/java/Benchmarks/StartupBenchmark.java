@@ -0,0 +1,116 @@
+/**
+ * IJA Project
+ * @author Tomáš Boudný (xboudn05)
+ * @Description Measures the cold start of the game, from launching the JVM to the first rendered frame
+ *              of the main menu, with the distribution built by the startup profile of the game
+ *              (mvn package -P startup). Every invocation starts a new process, which prints
+ *              the first frame with the startup probe of HelloApplication and exits.
+ *              Needs a display.
+ */
+
+package Benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    /**
+     * Line printed by the startup probe, see HelloApplication.FIRST_FRAME.
+     */
+    private static final String FIRST_FRAME = "First frame after ms: ";
+
+    private static final String MAIN_MODULE = "ija.game.lightbulbgame/ija.game.lightbulbgame.HelloApplication";
+
+    /**
+     * The runtime: "jdk" is the JDK running the benchmark with all JavaFX modules on the module path,
+     * "jlink" the trimmed runtime of the startup profile, "jlink-cds" the same with the AppCDS archive.
+     */
+    @Param({"jdk", "jlink", "jlink-cds"})
+    public String runtime;
+
+    /**
+     * The directory built by the startup profile.
+     */
+    @Param({"../LightBulbGame/target/startup"})
+    public String directory;
+
+    private File workingDirectory;
+    private List<String> command;
+    private Process process;
+
+    /**
+     * Builds the command line of the runtime.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        workingDirectory = new File(directory);
+        command = new ArrayList<>();
+        switch (runtime) {
+            case "jdk" -> {
+                command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+                command.add("--module-path");
+                command.add("modules" + File.pathSeparator + "javafx");
+            }
+            case "jlink", "jlink-cds" -> {
+                command.add(new File(workingDirectory, "runtime/bin/java").getAbsolutePath());
+                if (runtime.equals("jlink-cds")) {
+                    command.add("-XX:SharedArchiveFile=lightbulbgame.jsa");
+                }
+                command.add("--module-path");
+                command.add("modules");
+            }
+            default -> throw new IllegalArgumentException("Unknown runtime: " + runtime);
+        }
+        command.add("-Dlightbulbgame.startupProbe=true");
+        command.add("-m");
+        command.add(MAIN_MODULE);
+    }
+
+    /**
+     * Launches the game and waits for its first frame.
+     *
+     * @return the startup time reported by the game in milliseconds
+     * @throws IOException if the game cannot be launched or exits without rendering
+     */
+    @Benchmark
+    public long firstFrame() throws IOException {
+        process = new ProcessBuilder(command)
+                .directory(workingDirectory)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.startsWith(FIRST_FRAME)) {
+                return Long.parseLong(line.substring(FIRST_FRAME.length()).trim());
+            }
+        }
+        throw new IOException("The game exited without rendering a frame");
+    }
+
+    /**
+     * Waits until the game exits, outside of the measured time.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @TearDown(Level.Invocation)
+    public void waitForExit() throws InterruptedException {
+        if (process != null && !process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        process = null;
+    }
+}